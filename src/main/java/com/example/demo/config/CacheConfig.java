@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import com.example.demo.search.TextNormalizer;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Cachés en memoria (Caffeine) para las lecturas públicas del catálogo de lugares.
+ * El peso de cada entrada es el número de lugares que contiene, así el límite
+ * se expresa en lugares y no en número de listas. El límite se aplica a cada caché por
+ * separado: entre las cinco pueden retenerse hasta cinco veces max-weight lugares.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PLACES_ALL = "places.all";
+    public static final String PLACES_BY_ID = "places.byId";
+    public static final String PLACES_BY_TYPE = "places.byType";
+    public static final String PLACES_BY_AVAILABILITY = "places.byAvailability";
+    public static final String PLACES_BY_BUILDING = "places.byBuilding";
+
+    @Value("${places.cache.max-weight:20000}")
+    private long maxWeight;
+
+    @Value("${places.cache.expire-after-write:PT1H}")
+    private Duration expireAfterWrite;
+
+    /**
+     * Clave de PLACES_BY_BUILDING. MySQL compara building_name sin distinguir mayúsculas ni
+     * tildes, así que todas las variantes que devuelven las mismas filas comparten una entrada
+     * y la invalidación por el nombre del lugar las alcanza a todas.
+     */
+    public static String buildingKey(String buildingName) {
+        return TextNormalizer.fold(buildingName.trim());
+    }
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Object key, Object value) -> value instanceof Collection<?> c ? Math.max(1, c.size()) : 1)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats());
+        // Registrar las cachés al arrancar para que sus métricas existan desde el inicio
+        cacheManager.setCacheNames(List.of(
+                PLACES_ALL, PLACES_BY_ID, PLACES_BY_TYPE, PLACES_BY_AVAILABILITY, PLACES_BY_BUILDING));
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
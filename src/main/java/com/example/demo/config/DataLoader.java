@@ -2,6 +2,7 @@ package com.example.demo.config;
 
 import com.example.demo.entity.*;
 import com.example.demo.repository.*;
+import com.example.demo.service.UsageCounterService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -44,6 +45,9 @@ public class DataLoader implements CommandLineRunner {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UsageCounterService usageCounterService;
+
     @Override
     public void run(String... args) throws Exception {
         if (shouldLoadData()) {
@@ -246,8 +250,6 @@ public class DataLoader implements CommandLineRunner {
         routeToLibrary.setEstimatedTime(5);
         routeToLibrary.setDifficulty(RouteDifficulty.EASY);
         routeToLibrary.setCreatedBy(admin);
-        routeToLibrary.setAverageRating(4.2);
-        routeToLibrary.setTotalRatings(8);
         routeToLibrary.setTimesUsed(15);
         routeRepository.save(routeToLibrary);
 
@@ -278,8 +280,6 @@ public class DataLoader implements CommandLineRunner {
         routeToCafeteria.setEstimatedTime(4);
         routeToCafeteria.setDifficulty(RouteDifficulty.EASY);
         routeToCafeteria.setCreatedBy(admin);
-        routeToCafeteria.setAverageRating(4.5);
-        routeToCafeteria.setTotalRatings(12);
         routeToCafeteria.setTimesUsed(25);
         routeRepository.save(routeToCafeteria);
 
@@ -295,10 +295,9 @@ public class DataLoader implements CommandLineRunner {
         createRoutePoint(routeToCafeteria, 3, RoutePointType.END, cafeteria.getLatitude(), cafeteria.getLongitude(), 
                         "Has llegado a la Cafetería Principal", 60);
 
-        // Actualizar contadores de rutas en los lugares
-        library.incrementRouteCount();
-        cafeteria.incrementRouteCount();
-        placeRepository.saveAll(Arrays.asList(library, cafeteria));
+        // Actualizar contadores de rutas en los lugares (se vuelcan con el siguiente flush)
+        usageCounterService.incrementRouteCount(library.getId());
+        usageCounterService.incrementRouteCount(cafeteria.getId());
 
         logger.info("✅ {} rutas de ejemplo creadas", routeRepository.count());
     }
@@ -403,6 +402,9 @@ public class DataLoader implements CommandLineRunner {
             ratingRepository.save(rating3);
         }
 
+        // Promedio, conteo e histograma de las rutas a partir de las calificaciones creadas
+        routeRepository.recalculateRatingAggregates();
+
         logger.info("✅ {} calificaciones de ejemplo creadas", ratingRepository.count());
     }
 
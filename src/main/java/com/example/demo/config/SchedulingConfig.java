@@ -0,0 +1,12 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tareas periódicas (volcado de contadores de uso a la base de datos).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,6 +2,7 @@ package com.example.demo.config;
 
 import com.example.demo.security.JwtAuthenticationEntryPoint;
 import com.example.demo.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -35,9 +36,11 @@ public class SecurityConfig {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     }
 
+    // Si se sube el factor de trabajo, los hashes con uno menor se rehacen al iniciar sesión
+    // (UserDetailsServiceImpl.updatePassword)
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     @Bean
@@ -77,6 +80,8 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/routes/to/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/routes/*/points").permitAll()
                 .requestMatchers(HttpMethod.GET, "/routes/nearest").permitAll()
+                .requestMatchers(HttpMethod.GET, "/routes/path").permitAll()
+                .requestMatchers(HttpMethod.GET, "/routes/matrix").permitAll()
                 .requestMatchers(HttpMethod.GET, "/routes/*/details").permitAll()
                 .requestMatchers(HttpMethod.GET, "/routes/health").permitAll()
                 .requestMatchers(HttpMethod.GET, "/routes/proposals/health").permitAll()
@@ -101,6 +106,7 @@ public class SecurityConfig {
                 // 🔐 ENDPOINTS PROTEGIDOS DE NAVEGACIÓN (requieren JWT - cualquier usuario)
                 .requestMatchers(HttpMethod.POST, "/navigation/start").authenticated()
                 .requestMatchers(HttpMethod.POST, "/navigation/complete").authenticated()
+                .requestMatchers(HttpMethod.POST, "/navigation/*/progress").authenticated()
                 .requestMatchers(HttpMethod.GET, "/navigation/history").authenticated()
                 
                 // 🛡️ ENDPOINTS SOLO ADMIN - RUTAS
@@ -124,6 +130,9 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.PUT, "/places/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/places/**").hasRole("ADMIN")
                 
+                // 🛡️ ENDPOINTS SOLO ADMIN - MÉTRICAS (actuator)
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                
                 // 🔒 CUALQUIER OTRO ENDPOINT REQUIERE AUTENTICACIÓN
                 .anyRequest().authenticated()
             );
@@ -2,8 +2,11 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.auth.AuthResponse;
 import com.example.demo.dto.auth.LoginRequest;
+import com.example.demo.dto.auth.RefreshTokenRequest;
 import com.example.demo.dto.auth.RegisterRequest;
 import com.example.demo.dto.user.UserDTO;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.security.PasswordHashingExecutor;
 import com.example.demo.service.AuthService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -15,6 +18,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/auth")
@@ -26,56 +31,92 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    // Login y registro calculan BCrypt: se ejecutan en el pool de hashing y liberan el hilo de Tomcat
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
+        logger.info("Intento de login para email: {}", loginRequest.getEmail());
+        
+        return passwordHashingExecutor.submit(() -> authService.login(loginRequest))
+                .handle((authResponse, error) -> {
+                    if (error != null) {
+                        logger.error("Error en login: {}", unwrap(error).getMessage());
+                        
+                        Map<String, Object> errorResponse = new HashMap<>();
+                        errorResponse.put("success", false);
+                        errorResponse.put("message", unwrap(error).getMessage());
+                        
+                        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
+                    }
+                    
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Login exitoso");
+                    response.put("data", authResponse);
+                    
+                    return ResponseEntity.ok(response);
+                });
+    }
+
+    @PostMapping("/register")
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
+        logger.info("Intento de registro para email: {}", registerRequest.getEmail());
+        
+        return passwordHashingExecutor.submit(() -> {
+                    // Validar la request antes de proceder
+                    authService.validateRegisterRequest(registerRequest);
+                    return authService.register(registerRequest);
+                })
+                .handle((authResponse, error) -> {
+                    if (error != null) {
+                        logger.error("Error en registro: {}", unwrap(error).getMessage());
+                        
+                        Map<String, Object> errorResponse = new HashMap<>();
+                        errorResponse.put("success", false);
+                        errorResponse.put("message", unwrap(error).getMessage());
+                        
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+                    }
+                    
+                    Map<String, Object> response = new HashMap<>();
+                    response.put("success", true);
+                    response.put("message", "Usuario registrado exitosamente");
+                    response.put("data", authResponse);
+                    
+                    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                });
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
         try {
-            logger.info("Intento de login para email: {}", loginRequest.getEmail());
-            
-            AuthResponse authResponse = authService.login(loginRequest);
+            AuthResponse authResponse = authService.refresh(refreshRequest);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Login exitoso");
+            response.put("message", "Tokens renovados exitosamente");
             response.put("data", authResponse);
             
             return ResponseEntity.ok(response);
             
-        } catch (Exception e) {
-            logger.error("Error en login: {}", e.getMessage());
+        } catch (BadRequestException e) {
+            logger.warn("Refresh token rechazado: {}", e.getMessage());
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
             errorResponse.put("message", e.getMessage());
             
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
-        }
-    }
-
-    @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
-        try {
-            logger.info("Intento de registro para email: {}", registerRequest.getEmail());
-            
-            // Validar la request antes de proceder
-            authService.validateRegisterRequest(registerRequest);
-            
-            AuthResponse authResponse = authService.register(registerRequest);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "Usuario registrado exitosamente");
-            response.put("data", authResponse);
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
         } catch (Exception e) {
-            logger.error("Error en registro: {}", e.getMessage());
+            logger.error("Error renovando tokens: {}", e.getMessage());
             
             Map<String, Object> errorResponse = new HashMap<>();
             errorResponse.put("success", false);
-            errorResponse.put("message", e.getMessage());
+            errorResponse.put("message", "Error renovando tokens");
             
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
 
@@ -171,4 +212,10 @@ public class AuthController {
         
         return ResponseEntity.ok(response);
     }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.navigation.*;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.service.NavigationService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/navigation")
@@ -67,6 +69,31 @@ public class NavigationController {
         }
     }
 
+    /**
+     * POST /api/navigation/{navigationId}/progress - Posición ajustada a la ruta, siguiente instrucción y desvío
+     */
+    @PostMapping("/{navigationId}/progress")
+    public ResponseEntity<?> updateProgress(
+            @PathVariable UUID navigationId,
+            @Valid @RequestBody NavigationProgressRequest request) {
+        try {
+            NavigationProgressDTO progress = navigationService.updateProgress(navigationId, request);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", progress.isOffRoute() ? "Fuera de la ruta" : "En la ruta");
+            response.put("data", progress);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error actualizando progreso de navegación {}: {}", navigationId, e.getMessage());
+            return createErrorResponse(e.getMessage(), determineHttpStatus(e));
+        }
+    }
+
     /**
      * GET /api/navigation/history - Obtener historial de navegación del usuario
      */
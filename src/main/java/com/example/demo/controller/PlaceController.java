@@ -3,7 +3,12 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.place.CreatePlaceRequest;
 import com.example.demo.dto.place.PlaceDTO;
+import com.example.demo.dto.place.PlacePage;
+import com.example.demo.dto.place.PlaceSuggestionDTO;
+import com.example.demo.dto.place.PlaceSummaryDTO;
+import com.example.demo.dto.place.PlaceView;
 import com.example.demo.dto.place.UpdatePlaceRequest;
+import com.example.demo.exception.BadRequestException;
 import com.example.demo.service.PlaceService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -32,18 +37,32 @@ public class PlaceController {
 
     // Obtener todos los lugares (público)
     @GetMapping("")
-    public ResponseEntity<?> getAllPlaces() {
+    public ResponseEntity<?> getAllPlaces(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
-            List<PlaceDTO> places = placeService.getAllPlaces();
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Lugares obtenidos exitosamente");
-            response.put("count", places.size());
-            response.put("data", places);
+            
+            PlaceView placeView = PlaceView.from(view);
+            if (isPaged(cursor, size)) {
+                putPage(response, placeService.getAllPlacesPage(cursor, size, placeView));
+            } else if (placeView == PlaceView.SUMMARY) {
+                List<PlaceSummaryDTO> summaries = placeService.getAllPlaceSummaries();
+                response.put("count", summaries.size());
+                response.put("data", summaries);
+            } else {
+                List<PlaceDTO> places = placeService.getAllPlaces();
+                response.put("count", places.size());
+                response.put("data", places);
+            }
             
             return ResponseEntity.ok(response);
             
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Error obteniendo todos los lugares: {}", e.getMessage());
             return createErrorResponse("Error obteniendo lugares", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -71,37 +90,91 @@ public class PlaceController {
 
     // Buscar lugares por texto (público)
     @GetMapping("/search")
-    public ResponseEntity<?> searchPlaces(@RequestParam(required = false) String q) {
+    public ResponseEntity<?> searchPlaces(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
-            List<PlaceDTO> places = placeService.searchPlaces(q);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Búsqueda completada exitosamente");
             response.put("query", q);
-            response.put("count", places.size());
-            response.put("data", places);
+            
+            PlaceView placeView = PlaceView.from(view);
+            if (isPaged(cursor, size)) {
+                putPage(response, placeService.searchPlacesPage(q, cursor, size, placeView));
+            } else if (placeView == PlaceView.SUMMARY) {
+                List<PlaceSummaryDTO> summaries = placeService.searchPlaceSummaries(q, limit);
+                response.put("count", summaries.size());
+                response.put("data", summaries);
+            } else {
+                List<PlaceDTO> places = placeService.searchPlaces(q, limit);
+                response.put("count", places.size());
+                response.put("data", places);
+            }
             
             return ResponseEntity.ok(response);
             
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Error en búsqueda de lugares: {}", e.getMessage());
             return createErrorResponse("Error en búsqueda", HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // Autocompletado de lugares mientras se escribe (público)
+    @GetMapping("/autocomplete")
+    public ResponseEntity<?> autocompletePlaces(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<PlaceSuggestionDTO> suggestions = placeService.autocompletePlaces(q, limit);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Sugerencias obtenidas exitosamente");
+            response.put("query", q);
+            response.put("count", suggestions.size());
+            response.put("data", suggestions);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error en autocompletado de lugares: {}", e.getMessage());
+            return createErrorResponse("Error en autocompletado", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     // Obtener lugares por tipo (público)
     @GetMapping("/type/{placeType}")
-    public ResponseEntity<?> getPlacesByType(@PathVariable String placeType) {
+    public ResponseEntity<?> getPlacesByType(
+            @PathVariable String placeType,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
-            List<PlaceDTO> places = placeService.getPlacesByType(placeType);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Lugares por tipo obtenidos exitosamente");
             response.put("placeType", placeType);
-            response.put("count", places.size());
-            response.put("data", places);
+            
+            PlaceView placeView = PlaceView.from(view);
+            if (isPaged(cursor, size)) {
+                putPage(response, placeService.getPlacesByTypePage(placeType, cursor, size, placeView));
+            } else if (placeView == PlaceView.SUMMARY) {
+                List<PlaceSummaryDTO> summaries = placeService.getPlaceSummariesByType(placeType);
+                response.put("count", summaries.size());
+                response.put("data", summaries);
+            } else {
+                List<PlaceDTO> places = placeService.getPlacesByType(placeType);
+                response.put("count", places.size());
+                response.put("data", places);
+            }
             
             return ResponseEntity.ok(response);
             
@@ -113,19 +186,34 @@ public class PlaceController {
 
     // Obtener lugares disponibles (público)
     @GetMapping("/available")
-    public ResponseEntity<?> getAvailablePlaces(@RequestParam(defaultValue = "true") Boolean isAvailable) {
+    public ResponseEntity<?> getAvailablePlaces(
+            @RequestParam(defaultValue = "true") Boolean isAvailable,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
-            List<PlaceDTO> places = placeService.getAvailablePlaces(isAvailable);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Lugares por disponibilidad obtenidos exitosamente");
             response.put("isAvailable", isAvailable);
-            response.put("count", places.size());
-            response.put("data", places);
+            
+            PlaceView placeView = PlaceView.from(view);
+            if (isPaged(cursor, size)) {
+                putPage(response, placeService.getAvailablePlacesPage(isAvailable, cursor, size, placeView));
+            } else if (placeView == PlaceView.SUMMARY) {
+                List<PlaceSummaryDTO> summaries = placeService.getAvailablePlaceSummaries(isAvailable);
+                response.put("count", summaries.size());
+                response.put("data", summaries);
+            } else {
+                List<PlaceDTO> places = placeService.getAvailablePlaces(isAvailable);
+                response.put("count", places.size());
+                response.put("data", places);
+            }
             
             return ResponseEntity.ok(response);
             
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Error obteniendo lugares disponibles: {}", e.getMessage());
             return createErrorResponse("Error obteniendo lugares disponibles", HttpStatus.INTERNAL_SERVER_ERROR);
@@ -134,16 +222,29 @@ public class PlaceController {
 
     // Obtener lugares por edificio (público)
     @GetMapping("/building/{buildingName}")
-    public ResponseEntity<?> getPlacesByBuilding(@PathVariable String buildingName) {
+    public ResponseEntity<?> getPlacesByBuilding(
+            @PathVariable String buildingName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
-            List<PlaceDTO> places = placeService.getPlacesByBuilding(buildingName);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Lugares por edificio obtenidos exitosamente");
             response.put("building", buildingName);
-            response.put("count", places.size());
-            response.put("data", places);
+            
+            PlaceView placeView = PlaceView.from(view);
+            if (isPaged(cursor, size)) {
+                putPage(response, placeService.getPlacesByBuildingPage(buildingName, cursor, size, placeView));
+            } else if (placeView == PlaceView.SUMMARY) {
+                List<PlaceSummaryDTO> summaries = placeService.getPlaceSummariesByBuilding(buildingName);
+                response.put("count", summaries.size());
+                response.put("data", summaries);
+            } else {
+                List<PlaceDTO> places = placeService.getPlacesByBuilding(buildingName);
+                response.put("count", places.size());
+                response.put("data", places);
+            }
             
             return ResponseEntity.ok(response);
             
@@ -178,17 +279,29 @@ public class PlaceController {
     public ResponseEntity<?> getNearbyPlaces(
             @RequestParam BigDecimal lat,
             @RequestParam BigDecimal lng,
-            @RequestParam(defaultValue = "1.0") BigDecimal radius) {
+            @RequestParam(defaultValue = "1.0") BigDecimal radius,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String view) {
         try {
-            List<PlaceDTO> places = placeService.getNearbyPlaces(lat, lng, radius);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Lugares cercanos obtenidos exitosamente");
             response.put("location", Map.of("latitude", lat, "longitude", lng));
             response.put("radius", radius + "km");
-            response.put("count", places.size());
-            response.put("data", places);
+            
+            PlaceView placeView = PlaceView.from(view);
+            if (isPaged(cursor, size)) {
+                putPage(response, placeService.getNearbyPlacesPage(lat, lng, radius, cursor, size, placeView));
+            } else if (placeView == PlaceView.SUMMARY) {
+                List<PlaceSummaryDTO> summaries = placeService.getNearbyPlaceSummaries(lat, lng, radius);
+                response.put("count", summaries.size());
+                response.put("data", summaries);
+            } else {
+                List<PlaceDTO> places = placeService.getNearbyPlaces(lat, lng, radius);
+                response.put("count", places.size());
+                response.put("data", places);
+            }
             
             return ResponseEntity.ok(response);
             
@@ -259,6 +372,18 @@ public class PlaceController {
         }
     }
 
+    // Métodos auxiliares de paginación: sin cursor ni size se mantiene la respuesta completa
+    private boolean isPaged(String cursor, Integer size) {
+        return cursor != null || size != null;
+    }
+
+    private void putPage(Map<String, Object> response, PlacePage<?> page) {
+        response.put("count", page.getItems().size());
+        response.put("data", page.getItems());
+        response.put("nextCursor", page.getNextCursor());
+        response.put("hasMore", page.isHasMore());
+    }
+
     // Método auxiliar para crear respuestas de error
     private ResponseEntity<?> createErrorResponse(String message, HttpStatus status) {
         Map<String, Object> errorResponse = new HashMap<>();
@@ -1,6 +1,8 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.route.*;
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.geo.RouteGeometry;
 import com.example.demo.service.RouteService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -76,22 +78,31 @@ public class RouteController {
     }
 
     /**
-     * GET /api/routes/{routeId}/points - Puntos detallados de una ruta
+     * GET /api/routes/{routeId}/points?format=polyline - Puntos detallados de una ruta
      */
     @GetMapping("/{routeId}/points")
-    public ResponseEntity<?> getRoutePoints(@PathVariable UUID routeId) {
+    public ResponseEntity<?> getRoutePoints(
+            @PathVariable UUID routeId,
+            @RequestParam(required = false) String format) {
         try {
-            List<RoutePointDTO> points = routeService.getRoutePoints(routeId);
+            RouteGeometryFormat geometryFormat = RouteGeometryFormat.from(format);
+            RouteGeometry geometry = routeService.getRouteGeometry(routeId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Puntos de ruta obtenidos exitosamente");
             response.put("routeId", routeId);
-            response.put("count", points.size());
-            response.put("data", points);
+            response.put("count", geometry.size());
+            if (geometryFormat == RouteGeometryFormat.POLYLINE) {
+                response.put("data", geometry.compact());
+            } else {
+                response.put("data", geometry.pointsJson()); // JSON ya serializado en caché
+            }
             
             return ResponseEntity.ok(response);
             
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Error obteniendo puntos de ruta {}: {}", routeId, e.getMessage());
             return createErrorResponse(e.getMessage(), determineHttpStatus(e));
@@ -125,12 +136,66 @@ public class RouteController {
     }
 
     /**
-     * GET /api/routes/{routeId}/details - Información completa de una ruta
+     * GET /api/routes/path?lat=X&lng=Y&destination=placeId - Camino peatonal más corto por el grafo del campus
+     */
+    @GetMapping("/path")
+    public ResponseEntity<?> getWalkingPath(
+            @RequestParam BigDecimal lat,
+            @RequestParam BigDecimal lng,
+            @RequestParam UUID destination) {
+        try {
+            WalkingPathDTO path = routeService.findWalkingPath(lat, lng, destination);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Camino calculado exitosamente");
+            response.put("userLocation", Map.of("latitude", lat, "longitude", lng));
+            response.put("data", path);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            logger.error("Error calculando camino peatonal: {}", e.getMessage());
+            return createErrorResponse(e.getMessage(), determineHttpStatus(e));
+        }
+    }
+
+    /**
+     * GET /api/routes/matrix?from=placeId&to=id1,id2 - Distancias y tiempos a pie desde un destino (uno a muchos)
+     */
+    @GetMapping("/matrix")
+    public ResponseEntity<?> getTravelTimes(
+            @RequestParam UUID from,
+            @RequestParam(required = false) List<UUID> to) {
+        try {
+            List<TravelTimeDTO> travelTimes = routeService.getTravelTimes(from, to);
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Tiempos de recorrido obtenidos exitosamente");
+            response.put("fromPlaceId", from);
+            response.put("count", travelTimes.size());
+            response.put("data", travelTimes);
+            
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            logger.error("Error consultando matriz de tiempos desde {}: {}", from, e.getMessage());
+            return createErrorResponse(e.getMessage(), determineHttpStatus(e));
+        }
+    }
+
+    /**
+     * GET /api/routes/{routeId}/details?format=polyline - Información completa de una ruta
      */
     @GetMapping("/{routeId}/details")
-    public ResponseEntity<?> getRouteDetails(@PathVariable UUID routeId) {
+    public ResponseEntity<?> getRouteDetails(
+            @PathVariable UUID routeId,
+            @RequestParam(required = false) String format) {
         try {
-            RouteDTO route = routeService.getRouteDetails(routeId);
+            RouteDTO route = routeService.getRouteDetails(routeId, RouteGeometryFormat.from(format));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -139,6 +204,8 @@ public class RouteController {
             
             return ResponseEntity.ok(response);
             
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Error obteniendo detalles de ruta {}: {}", routeId, e.getMessage());
             return createErrorResponse(e.getMessage(), determineHttpStatus(e));
@@ -164,6 +231,8 @@ public class RouteController {
             
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
             
+        } catch (BadRequestException e) {
+            return createErrorResponse(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             logger.error("Error calificando ruta {}: {}", routeId, e.getMessage());
             return createErrorResponse(e.getMessage(), determineHttpStatus(e));
@@ -5,7 +5,9 @@ import com.example.demo.dto.user.UserDTO;
 public class AuthResponse {
     
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
+    private long expiresIn; // segundos de vida del access token
     private UserDTO user;
     
     // Constructors
@@ -16,6 +18,13 @@ public class AuthResponse {
         this.user = user;
     }
     
+    public AuthResponse(String token, String refreshToken, long expiresIn, UserDTO user) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+        this.expiresIn = expiresIn;
+        this.user = user;
+    }
+    
     // Getters and Setters
     public String getToken() {
         return token;
@@ -25,6 +34,14 @@ public class AuthResponse {
         this.token = token;
     }
     
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+    
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
     public String getType() {
         return type;
     }
@@ -33,6 +50,14 @@ public class AuthResponse {
         this.type = type;
     }
     
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+    
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+    
     public UserDTO getUser() {
         return user;
     }
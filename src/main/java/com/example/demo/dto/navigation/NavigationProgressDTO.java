@@ -0,0 +1,67 @@
+// NavigationProgressDTO.java
+package com.example.demo.dto.navigation;
+
+import com.example.demo.dto.route.RouteInstructionDTO;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Progreso de una navegación en curso: posición ajustada a la ruta, distancias y
+ * siguiente instrucción. Las distancias están en metros.
+ */
+public class NavigationProgressDTO {
+    
+    private UUID navigationId;
+    private UUID routeId;
+    private int segmentIndex;
+    private BigDecimal snappedLatitude;
+    private BigDecimal snappedLongitude;
+    private double distanceFromRoute;
+    private boolean offRoute;
+    private double distanceTraveled;
+    private double distanceRemaining;
+    private double progressPercentage;
+    private RouteInstructionDTO nextInstruction; // null si ya no quedan instrucciones
+    private Double distanceToNextInstruction;
+    
+    // Constructors
+    public NavigationProgressDTO() {}
+    
+    // Getters and Setters
+    public UUID getNavigationId() { return navigationId; }
+    public void setNavigationId(UUID navigationId) { this.navigationId = navigationId; }
+    
+    public UUID getRouteId() { return routeId; }
+    public void setRouteId(UUID routeId) { this.routeId = routeId; }
+    
+    public int getSegmentIndex() { return segmentIndex; }
+    public void setSegmentIndex(int segmentIndex) { this.segmentIndex = segmentIndex; }
+    
+    public BigDecimal getSnappedLatitude() { return snappedLatitude; }
+    public void setSnappedLatitude(BigDecimal snappedLatitude) { this.snappedLatitude = snappedLatitude; }
+    
+    public BigDecimal getSnappedLongitude() { return snappedLongitude; }
+    public void setSnappedLongitude(BigDecimal snappedLongitude) { this.snappedLongitude = snappedLongitude; }
+    
+    public double getDistanceFromRoute() { return distanceFromRoute; }
+    public void setDistanceFromRoute(double distanceFromRoute) { this.distanceFromRoute = distanceFromRoute; }
+    
+    public boolean isOffRoute() { return offRoute; }
+    public void setOffRoute(boolean offRoute) { this.offRoute = offRoute; }
+    
+    public double getDistanceTraveled() { return distanceTraveled; }
+    public void setDistanceTraveled(double distanceTraveled) { this.distanceTraveled = distanceTraveled; }
+    
+    public double getDistanceRemaining() { return distanceRemaining; }
+    public void setDistanceRemaining(double distanceRemaining) { this.distanceRemaining = distanceRemaining; }
+    
+    public double getProgressPercentage() { return progressPercentage; }
+    public void setProgressPercentage(double progressPercentage) { this.progressPercentage = progressPercentage; }
+    
+    public RouteInstructionDTO getNextInstruction() { return nextInstruction; }
+    public void setNextInstruction(RouteInstructionDTO nextInstruction) { this.nextInstruction = nextInstruction; }
+    
+    public Double getDistanceToNextInstruction() { return distanceToNextInstruction; }
+    public void setDistanceToNextInstruction(Double distanceToNextInstruction) { this.distanceToNextInstruction = distanceToNextInstruction; }
+}
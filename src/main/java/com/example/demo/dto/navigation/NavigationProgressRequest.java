@@ -0,0 +1,28 @@
+// NavigationProgressRequest.java
+package com.example.demo.dto.navigation;
+
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+
+public class NavigationProgressRequest {
+    
+    @NotNull(message = "Latitud actual es obligatoria")
+    @DecimalMin(value = "-90.0", message = "Latitud debe ser mayor a -90")
+    @DecimalMax(value = "90.0", message = "Latitud debe ser menor a 90")
+    private BigDecimal latitude;
+    
+    @NotNull(message = "Longitud actual es obligatoria")
+    @DecimalMin(value = "-180.0", message = "Longitud debe ser mayor a -180")
+    @DecimalMax(value = "180.0", message = "Longitud debe ser menor a 180")
+    private BigDecimal longitude;
+    
+    // Constructors, getters and setters...
+    public NavigationProgressRequest() {}
+    
+    public BigDecimal getLatitude() { return latitude; }
+    public void setLatitude(BigDecimal latitude) { this.latitude = latitude; }
+    
+    public BigDecimal getLongitude() { return longitude; }
+    public void setLongitude(BigDecimal longitude) { this.longitude = longitude; }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.dto.place;
+
+import com.example.demo.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Cursor opaco de paginación de lugares (base64url).
+ * <ul>
+ *   <li>Listados de base de datos: último (nombre, id) entregado, ordenados por nombre e id.</li>
+ *   <li>Listados por relevancia o distancia: posición e id del último lugar entregado.</li>
+ * </ul>
+ */
+public final class PlaceCursor {
+
+    private static final String KEYSET = "k";
+    private static final String RANKED = "r";
+
+    // Antes de cualquier nombre válido (los nombres no pueden estar vacíos)
+    private static final UUID NIL_UUID = new UUID(0L, 0L);
+
+    private final String kind;
+    private final UUID lastId;
+    private final String lastName;
+    private final int position;
+
+    private PlaceCursor(String kind, UUID lastId, String lastName, int position) {
+        this.kind = kind;
+        this.lastId = lastId;
+        this.lastName = lastName;
+        this.position = position;
+    }
+
+    public static PlaceCursor start() {
+        return new PlaceCursor(KEYSET, NIL_UUID, "", 0);
+    }
+
+    public static PlaceCursor keyset(String lastName, UUID lastId) {
+        return new PlaceCursor(KEYSET, lastId, lastName, 0);
+    }
+
+    public static PlaceCursor ranked(int position, UUID lastId) {
+        return new PlaceCursor(RANKED, lastId, null, position);
+    }
+
+    public String encode() {
+        String raw = isKeyset()
+                ? KEYSET + ":" + lastId + ":" + lastName
+                : RANKED + ":" + lastId + ":" + position;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PlaceCursor decode(String token) {
+        if (token == null) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException();
+            }
+
+            UUID id = UUID.fromString(parts[1]);
+            if (KEYSET.equals(parts[0])) {
+                return keyset(parts[2], id);
+            }
+            if (RANKED.equals(parts[0])) {
+                // Una posición negativa llegaría a subList como índice inválido
+                int position = Integer.parseInt(parts[2]);
+                if (position < 0) {
+                    throw new IllegalArgumentException();
+                }
+                return ranked(position, id);
+            }
+            throw new IllegalArgumentException();
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+
+    public boolean isKeyset() {
+        return KEYSET.equals(kind);
+    }
+
+    public UUID getLastId() {
+        return lastId;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+}
@@ -10,7 +10,7 @@ import java.time.LocalDateTime;
 import java.util.Set;
 import java.util.UUID;
 
-public class PlaceDTO {
+public class PlaceDTO implements PlaceListItem {
  
  private UUID id;
  private String name;
@@ -0,0 +1,14 @@
+package com.example.demo.dto.place;
+
+import java.util.UUID;
+
+/**
+ * Elemento de un listado de lugares (completo o resumido). La paginación por cursor
+ * solo necesita el id y el nombre del último elemento entregado.
+ */
+public interface PlaceListItem {
+
+    UUID getId();
+
+    String getName();
+}
@@ -0,0 +1,50 @@
+package com.example.demo.dto.place;
+
+import com.example.demo.entity.Place;
+
+import java.util.UUID;
+
+public class PlaceSuggestionDTO {
+
+    private UUID id;
+    private String name;
+    private String buildingName;
+
+    // Constructors
+    public PlaceSuggestionDTO() {}
+
+    public PlaceSuggestionDTO(UUID id, String name, String buildingName) {
+        this.id = id;
+        this.name = name;
+        this.buildingName = buildingName;
+    }
+
+    public static PlaceSuggestionDTO fromEntity(Place place) {
+        return new PlaceSuggestionDTO(place.getId(), place.getName(), place.getBuildingName());
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getBuildingName() {
+        return buildingName;
+    }
+
+    public void setBuildingName(String buildingName) {
+        this.buildingName = buildingName;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.dto.place;
+
+import com.example.demo.entity.PlaceType;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Proyección ligera de un lugar para vistas de mapa. Se construye directamente desde
+ * la consulta JPQL, sin hidratar la entidad ni sus colecciones.
+ */
+public class PlaceSummaryDTO implements PlaceListItem {
+
+    private UUID id;
+    private String name;
+    private PlaceType placeType;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private Boolean isAvailable;
+
+    // Constructors
+    public PlaceSummaryDTO() {}
+
+    public PlaceSummaryDTO(UUID id, String name, PlaceType placeType,
+                           BigDecimal latitude, BigDecimal longitude, Boolean isAvailable) {
+        this.id = id;
+        this.name = name;
+        this.placeType = placeType;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.isAvailable = isAvailable;
+    }
+
+    // Getters and Setters
+    @Override
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public PlaceType getPlaceType() {
+        return placeType;
+    }
+
+    public void setPlaceType(PlaceType placeType) {
+        this.placeType = placeType;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(BigDecimal latitude) {
+        this.latitude = latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(BigDecimal longitude) {
+        this.longitude = longitude;
+    }
+
+    public Boolean getIsAvailable() {
+        return isAvailable;
+    }
+
+    public void setIsAvailable(Boolean isAvailable) {
+        this.isAvailable = isAvailable;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto.place;
+
+import com.example.demo.exception.BadRequestException;
+
+/**
+ * Vista de los listados de lugares: FULL entrega PlaceDTO completo y SUMMARY
+ * solo los campos necesarios para pintar el lugar en el mapa.
+ */
+public enum PlaceView {
+    FULL,
+    SUMMARY;
+
+    public static PlaceView from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return PlaceView.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Vista inválida: " + value + " (use full o summary)");
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.example.demo.entity.RouteDifficulty;
 import com.example.demo.dto.place.PlaceDTO;
 import com.example.demo.dto.user.UserDTO;
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -38,6 +39,10 @@ public class RouteDTO {
     
     // Lista de puntos de la ruta (opcional, solo cuando se solicite detalle completo)
     private List<RoutePointDTO> routePoints;
+
+    // Solo con format=polyline en /routes/{id}/details (reemplaza routePoints)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RouteGeometryDTO geometry;
     
     // Constructors
     public RouteDTO() {}
@@ -168,4 +173,7 @@ public class RouteDTO {
     
     public List<RoutePointDTO> getRoutePoints() { return routePoints; }
     public void setRoutePoints(List<RoutePointDTO> routePoints) { this.routePoints = routePoints; }
+
+    public RouteGeometryDTO getGeometry() { return geometry; }
+    public void setGeometry(RouteGeometryDTO geometry) { this.geometry = geometry; }
 }
\ No newline at end of file
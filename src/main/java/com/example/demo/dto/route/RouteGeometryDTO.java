@@ -0,0 +1,58 @@
+package com.example.demo.dto.route;
+
+import java.util.List;
+
+/**
+ * Geometría compacta de una ruta: coordenadas como polilínea codificada e instrucciones
+ * solo para los puntos que las tienen (o que no son puntos intermedios).
+ */
+public class RouteGeometryDTO {
+
+    private String encoding;
+    private String polyline;
+    private int pointCount;
+    private List<RouteInstructionDTO> instructions;
+
+    // Constructors
+    public RouteGeometryDTO() {}
+
+    public RouteGeometryDTO(String encoding, String polyline, int pointCount, List<RouteInstructionDTO> instructions) {
+        this.encoding = encoding;
+        this.polyline = polyline;
+        this.pointCount = pointCount;
+        this.instructions = instructions;
+    }
+
+    // Getters and Setters
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public String getPolyline() {
+        return polyline;
+    }
+
+    public void setPolyline(String polyline) {
+        this.polyline = polyline;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(int pointCount) {
+        this.pointCount = pointCount;
+    }
+
+    public List<RouteInstructionDTO> getInstructions() {
+        return instructions;
+    }
+
+    public void setInstructions(List<RouteInstructionDTO> instructions) {
+        this.instructions = instructions;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.dto.route;
+
+import com.example.demo.exception.BadRequestException;
+
+/**
+ * Formato de la geometría en /routes/{id}/points y /routes/{id}/details: FULL entrega
+ * la lista de RoutePointDTO y POLYLINE la polilínea codificada con instrucciones dispersas.
+ */
+public enum RouteGeometryFormat {
+    FULL,
+    POLYLINE;
+
+    public static RouteGeometryFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return RouteGeometryFormat.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Formato inválido: " + value + " (use full o polyline)");
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.dto.route;
+
+import com.example.demo.entity.RoutePointType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Instrucción asociada a un vértice de la polilínea (índice del punto en la ruta).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RouteInstructionDTO {
+
+    private int index;
+    private RoutePointType pointType;
+    private String instruction;
+    private String landmarkDescription;
+
+    // Constructors
+    public RouteInstructionDTO() {}
+
+    public RouteInstructionDTO(int index, RoutePointType pointType, String instruction, String landmarkDescription) {
+        this.index = index;
+        this.pointType = pointType;
+        this.instruction = instruction;
+        this.landmarkDescription = landmarkDescription;
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public RoutePointType getPointType() {
+        return pointType;
+    }
+
+    public void setPointType(RoutePointType pointType) {
+        this.pointType = pointType;
+    }
+
+    public String getInstruction() {
+        return instruction;
+    }
+
+    public void setInstruction(String instruction) {
+        this.instruction = instruction;
+    }
+
+    public String getLandmarkDescription() {
+        return landmarkDescription;
+    }
+
+    public void setLandmarkDescription(String landmarkDescription) {
+        this.landmarkDescription = landmarkDescription;
+    }
+}
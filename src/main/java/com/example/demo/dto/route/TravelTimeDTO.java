@@ -0,0 +1,47 @@
+package com.example.demo.dto.route;
+
+import java.util.UUID;
+
+/**
+ * Distancia y tiempo a pie desde un lugar de origen hasta un destino, según la matriz precalculada.
+ */
+public class TravelTimeDTO {
+
+    private UUID placeId;
+    private Integer distance; // metros
+    private Integer estimatedTime; // minutos
+
+    // Constructors
+    public TravelTimeDTO() {}
+
+    public TravelTimeDTO(UUID placeId, Integer distance, Integer estimatedTime) {
+        this.placeId = placeId;
+        this.distance = distance;
+        this.estimatedTime = estimatedTime;
+    }
+
+    // Getters and Setters
+    public UUID getPlaceId() {
+        return placeId;
+    }
+
+    public void setPlaceId(UUID placeId) {
+        this.placeId = placeId;
+    }
+
+    public Integer getDistance() {
+        return distance;
+    }
+
+    public void setDistance(Integer distance) {
+        this.distance = distance;
+    }
+
+    public Integer getEstimatedTime() {
+        return estimatedTime;
+    }
+
+    public void setEstimatedTime(Integer estimatedTime) {
+        this.estimatedTime = estimatedTime;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.dto.route;
+
+import java.util.UUID;
+
+/**
+ * Camino peatonal calculado sobre el grafo del campus, desde la posición del usuario
+ * hasta un lugar. La geometría va como polilínea codificada (el primer punto es el origen
+ * y el último el lugar).
+ */
+public class WalkingPathDTO {
+
+    private UUID destinationId;
+    private Integer totalDistance; // metros, incluye los tramos hasta el primer camino y desde el último
+    private Integer accessDistance; // metros desde el origen hasta el camino más cercano
+    private Integer estimatedTime; // minutos
+    private String encoding;
+    private String polyline;
+    private int pointCount;
+
+    // Constructors
+    public WalkingPathDTO() {}
+
+    // Getters and Setters
+    public UUID getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(UUID destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public Integer getTotalDistance() {
+        return totalDistance;
+    }
+
+    public void setTotalDistance(Integer totalDistance) {
+        this.totalDistance = totalDistance;
+    }
+
+    public Integer getAccessDistance() {
+        return accessDistance;
+    }
+
+    public void setAccessDistance(Integer accessDistance) {
+        this.accessDistance = accessDistance;
+    }
+
+    public Integer getEstimatedTime() {
+        return estimatedTime;
+    }
+
+    public void setEstimatedTime(Integer estimatedTime) {
+        this.estimatedTime = estimatedTime;
+    }
+
+    public String getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(String encoding) {
+        this.encoding = encoding;
+    }
+
+    public String getPolyline() {
+        return polyline;
+    }
+
+    public void setPolyline(String polyline) {
+        this.polyline = polyline;
+    }
+
+    public int getPointCount() {
+        return pointCount;
+    }
+
+    public void setPointCount(int pointCount) {
+        this.pointCount = pointCount;
+    }
+}
@@ -9,7 +9,9 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "navigation_history")
+@Table(name = "navigation_history", indexes = {
+    @Index(name = "idx_navigation_user_route_completed", columnList = "user_id, route_used_id, route_completed")
+})
 public class NavigationHistory {
     
     @Id
@@ -80,10 +82,9 @@ public class NavigationHistory {
         }
         
         // 🆕 Si usó una ruta, marcar como completada por defecto
+        // (el uso de la ruta lo suma UsageCounterService)
         if (this.routeUsed != null) {
             this.routeCompleted = true;
-            // Incrementar el contador de uso de la ruta
-            this.routeUsed.incrementUsage();
         }
     }
     
@@ -1,5 +1,6 @@
 package com.example.demo.entity;
 
+import com.example.demo.geo.GeoPoint;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
@@ -13,9 +14,21 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 @Entity
-@Table(name = "places")
+@NamedEntityGraph(name = Place.DETAILS_GRAPH, attributeNodes = {
+    @NamedAttributeNode("equipment"),
+    @NamedAttributeNode("accessibilityFeatures")
+})
+@Table(name = "places", indexes = {
+    @Index(name = "idx_places_name_id", columnList = "name, id"),
+    @Index(name = "idx_places_type_name_id", columnList = "place_type, name, id"),
+    @Index(name = "idx_places_available_name_id", columnList = "is_available, name, id"),
+    @Index(name = "idx_places_building_name_id", columnList = "building_name, name, id")
+})
 public class Place {
     
+    // Grafo para cargar las colecciones que expone PlaceDTO en la misma consulta
+    public static final String DETAILS_GRAPH = "Place.details";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -85,7 +98,8 @@ public class Place {
     @Column(name = "is_route_destination")
     private Boolean isRouteDestination = true; // Si puede ser destino de rutas
     
-    @Column(name = "route_count", nullable = false)
+    // Solo lo modifica UsageCounterService (UPDATE con suma atómica)
+    @Column(name = "route_count", nullable = false, updatable = false)
     private Integer routeCount = 0; // Cantidad de rutas que llegan aquí
     
     @CreationTimestamp
@@ -125,15 +139,6 @@ public class Place {
     }
     
     // 🆕 NUEVOS MÉTODOS PARA RUTAS
-    public void incrementRouteCount() {
-        if (this.routeCount == null) this.routeCount = 0;
-        this.routeCount = this.routeCount + 1;
-    }
-    
-    public void decrementRouteCount() {
-        this.routeCount = Math.max(0, this.routeCount - 1);
-    }
-    
     public boolean hasActiveRoutes() {
         return routesToThisPlace.stream().anyMatch(Route::getIsActive);
     }
@@ -163,6 +168,11 @@ public class Place {
         this.isRouteDestination = false;
     }
     
+    // Coordenadas como primitivos para cálculos geográficos
+    public GeoPoint getLocation() {
+        return GeoPoint.of(latitude, longitude);
+    }
+    
     // Getters and Setters (todos los existentes + nuevos campos)
     public UUID getId() {
         return id;
@@ -13,7 +13,9 @@ import java.time.LocalDateTime;
 import java.util.*;
 
 @Entity
-@Table(name = "routes")
+@Table(name = "routes", indexes = {
+    @Index(name = "idx_routes_to_place_active_from_lat", columnList = "to_place_id, is_active, from_latitude")
+})
 public class Route {
     
     @Id
@@ -65,13 +67,34 @@ public class Route {
     @NotNull(message = "Usuario creador es obligatorio")
     private User createdBy;
     
-    @Column(name = "average_rating")
+    // Agregados de calificación: solo los modifica RouteRepository.applyRating (UPDATE atómico)
+    @Column(name = "average_rating", updatable = false)
     private Double averageRating = 0.0;
     
-    @Column(name = "total_ratings")
+    @Column(name = "total_ratings", updatable = false)
     private Integer totalRatings = 0;
     
-    @Column(name = "times_used")
+    @Column(name = "rating_sum", updatable = false)
+    private Integer ratingSum = 0;
+    
+    // Histograma por estrellas
+    @Column(name = "rating_count_1", updatable = false)
+    private Integer ratingCount1 = 0;
+    
+    @Column(name = "rating_count_2", updatable = false)
+    private Integer ratingCount2 = 0;
+    
+    @Column(name = "rating_count_3", updatable = false)
+    private Integer ratingCount3 = 0;
+    
+    @Column(name = "rating_count_4", updatable = false)
+    private Integer ratingCount4 = 0;
+    
+    @Column(name = "rating_count_5", updatable = false)
+    private Integer ratingCount5 = 0;
+    
+    // Solo lo modifica UsageCounterService (UPDATE con suma atómica)
+    @Column(name = "times_used", updatable = false)
     private Integer timesUsed = 0;
     
     @CreationTimestamp
@@ -107,35 +130,6 @@ public class Route {
         this.createdBy = createdBy;
     }
     
-    // Helper methods
-    public void updateAverageRating() {
-        if (totalRatings == 0) {
-            this.averageRating = 0.0;
-            return;
-        }
-        
-        double sum = ratings.stream()
-                .mapToInt(RouteRating::getRating)
-                .sum();
-        this.averageRating = Math.round((sum / totalRatings) * 100.0) / 100.0;
-    }
-    
-    public void incrementUsage() {
-        this.timesUsed++;
-    }
-    
-    public void addRating(RouteRating rating) {
-        this.ratings.add(rating);
-        this.totalRatings = this.ratings.size();
-        updateAverageRating();
-    }
-    
-    public void removeRating(RouteRating rating) {
-        this.ratings.remove(rating);
-        this.totalRatings = this.ratings.size();
-        updateAverageRating();
-    }
-    
     // Getters and Setters
     public UUID getId() {
         return id;
@@ -249,6 +243,54 @@ public class Route {
         this.totalRatings = totalRatings;
     }
     
+    public Integer getRatingSum() {
+        return ratingSum;
+    }
+    
+    public void setRatingSum(Integer ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+    
+    public Integer getRatingCount1() {
+        return ratingCount1;
+    }
+    
+    public void setRatingCount1(Integer ratingCount1) {
+        this.ratingCount1 = ratingCount1;
+    }
+    
+    public Integer getRatingCount2() {
+        return ratingCount2;
+    }
+    
+    public void setRatingCount2(Integer ratingCount2) {
+        this.ratingCount2 = ratingCount2;
+    }
+    
+    public Integer getRatingCount3() {
+        return ratingCount3;
+    }
+    
+    public void setRatingCount3(Integer ratingCount3) {
+        this.ratingCount3 = ratingCount3;
+    }
+    
+    public Integer getRatingCount4() {
+        return ratingCount4;
+    }
+    
+    public void setRatingCount4(Integer ratingCount4) {
+        this.ratingCount4 = ratingCount4;
+    }
+    
+    public Integer getRatingCount5() {
+        return ratingCount5;
+    }
+    
+    public void setRatingCount5(Integer ratingCount5) {
+        this.ratingCount5 = ratingCount5;
+    }
+    
     public Integer getTimesUsed() {
         return timesUsed;
     }
@@ -265,6 +307,10 @@ public class Route {
         return updatedAt;
     }
     
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
     public List<RoutePoint> getRoutePoints() {
         return routePoints;
     }
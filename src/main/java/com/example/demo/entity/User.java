@@ -42,6 +42,10 @@ public class User implements UserDetails {
     @Column(name = "is_active")
     private Boolean isActive = true;
     
+    // Versión de los tokens emitidos: los JWT con otra versión dejan de ser válidos
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+    
     // 🆕 NUEVO CAMPO: Puntuación de contribuciones
     @Column(name = "contribution_score")
     private Integer contributionScore = 0;
@@ -225,6 +229,22 @@ public class User implements UserDetails {
         this.isActive = isActive;
     }
     
+    public int getTokenVersion() {
+        // Filas anteriores a la columna quedan en null y equivalen a la versión 0
+        return tokenVersion != null ? tokenVersion : 0;
+    }
+    
+    public void setTokenVersion(Integer tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+    
+    /**
+     * Revoca los access y refresh tokens ya emitidos (p. ej. porque cambió el rol).
+     */
+    public void incrementTokenVersion() {
+        this.tokenVersion = getTokenVersion() + 1;
+    }
+    
     // 🆕 GETTER/SETTER PARA CONTRIBUTION SCORE
     public Integer getContributionScore() {
         return contributionScore;
@@ -0,0 +1,43 @@
+package com.example.demo.event;
+
+import com.example.demo.entity.Place;
+import com.example.demo.entity.PlaceType;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando un lugar se crea, actualiza o elimina (o cambia su contador de rutas).
+ * Los índices y cachés en memoria lo escuchan después del commit de la transacción.
+ *
+ * @param placeId  id del lugar afectado
+ * @param place    estado guardado del lugar, o null si fue eliminado
+ * @param previous claves de catálogo antes del cambio, o null si no cambiaron (o es nuevo)
+ */
+public record PlaceChangedEvent(UUID placeId, Place place, CatalogKeys previous) {
+
+    /**
+     * Campos por los que se agrupan los listados públicos de lugares.
+     */
+    public record CatalogKeys(PlaceType placeType, Boolean isAvailable, String buildingName) {
+
+        public static CatalogKeys of(Place place) {
+            return new CatalogKeys(place.getPlaceType(), place.getIsAvailable(), place.getBuildingName());
+        }
+    }
+
+    public static PlaceChangedEvent saved(Place place) {
+        return new PlaceChangedEvent(place.getId(), place, null);
+    }
+
+    public static PlaceChangedEvent updated(Place place, CatalogKeys previous) {
+        return new PlaceChangedEvent(place.getId(), place, previous);
+    }
+
+    public static PlaceChangedEvent deleted(UUID placeId, CatalogKeys previous) {
+        return new PlaceChangedEvent(placeId, null, previous);
+    }
+
+    public boolean isDeleted() {
+        return place == null;
+    }
+}
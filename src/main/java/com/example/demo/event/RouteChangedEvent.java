@@ -0,0 +1,41 @@
+package com.example.demo.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando una ruta se crea, actualiza, elimina o recibe una calificación.
+ * Los catálogos y cachés de rutas en memoria lo escuchan después del commit.
+ *
+ * @param routeId id de la ruta afectada
+ * @param type    tipo de cambio
+ */
+public record RouteChangedEvent(UUID routeId, Type type) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        RATED
+    }
+
+    public static RouteChangedEvent created(UUID routeId) {
+        return new RouteChangedEvent(routeId, Type.CREATED);
+    }
+
+    public static RouteChangedEvent updated(UUID routeId) {
+        return new RouteChangedEvent(routeId, Type.UPDATED);
+    }
+
+    public static RouteChangedEvent deleted(UUID routeId) {
+        return new RouteChangedEvent(routeId, Type.DELETED);
+    }
+
+    public static RouteChangedEvent rated(UUID routeId) {
+        return new RouteChangedEvent(routeId, Type.RATED);
+    }
+
+    // Creación, edición o borrado pueden cambiar destino, puntos o estado de la ruta
+    public boolean affectsGeometry() {
+        return type != Type.RATED;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.event;
+
+import java.util.UUID;
+
+/**
+ * Evento publicado cuando cambian los datos de un usuario que forman parte de su
+ * identidad autenticada (tipo de usuario, estado activo o versión de tokens).
+ * Las cachés de principales lo escuchan después del commit de la transacción.
+ *
+ * @param userId       id del usuario afectado
+ * @param email        email del usuario (sujeto de sus tokens)
+ * @param tokenVersion versión de tokens después del cambio
+ */
+public record UserChangedEvent(UUID userId, String email, int tokenVersion) {
+}
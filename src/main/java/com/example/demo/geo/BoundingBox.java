@@ -0,0 +1,22 @@
+package com.example.demo.geo;
+
+/**
+ * Rectángulo lat/lng que contiene un círculo de radio dado. Sirve como prefiltro
+ * barato (comparaciones sobre columnas indexadas) antes de calcular la distancia exacta.
+ */
+public record BoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+    public static BoundingBox around(double latitude, double longitude, double radiusKm) {
+        double latDelta = Math.toDegrees(radiusKm / GeoUtils.EARTH_RADIUS_KM);
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        // Cerca de los polos el rectángulo abarca todas las longitudes
+        double lngDelta = cosLat < 1e-6 ? 180.0 : Math.min(180.0, latDelta / cosLat);
+
+        return new BoundingBox(
+                Math.max(-90.0, latitude - latDelta),
+                Math.min(90.0, latitude + latDelta),
+                Math.max(-180.0, longitude - lngDelta),
+                Math.min(180.0, longitude + lngDelta)
+        );
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.demo.geo;
+
+import com.example.demo.entity.Route;
+import com.example.demo.event.RouteChangedEvent;
+import com.example.demo.repository.RoutePointRepository;
+import com.example.demo.repository.RouteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Grafo peatonal del campus a partir de las rutas activas. Guarda la polilínea de cada
+ * ruta; cuando una ruta cambia solo se vuelve a leer esa ruta, pero el grafo (un
+ * {@link WalkingGraph} inmutable) se reconstruye completo en segundo plano. Mientras
+ * tanto las consultas usan el grafo anterior; solo la primera construcción es en línea.
+ * También guarda el ritmo a pie que comparten /routes/path y la matriz de tiempos.
+ */
+@Component
+public class CampusWalkingGraph {
+
+    private static final Logger logger = LoggerFactory.getLogger(CampusWalkingGraph.class);
+
+    @Autowired
+    private RoutePointRepository routePointRepository;
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RouteGeometryCache routeGeometryCache;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    @Value("${routes.graph.snap-tolerance-meters:8}")
+    private double snapToleranceMeters;
+
+    // Ritmo de respaldo si ninguna ruta activa tiene distancia y tiempo
+    @Value("${routes.graph.walking-speed-kmh:4.5}")
+    private double walkingSpeedKmh;
+
+    private final Map<UUID, WalkingGraph.Polyline> polylines = new ConcurrentHashMap<>();
+    private final Set<UUID> pendingRoutes = ConcurrentHashMap.newKeySet();
+
+    private volatile WalkingGraph graph = WalkingGraph.EMPTY;
+    private volatile double minutesPerMeter;
+    private volatile boolean dirty = true;
+    private volatile boolean loaded = false;
+    private volatile boolean built = false;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+
+    // Se construye después de los CommandLineRunner (DataLoader) para incluir los datos de ejemplo
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+        refresh();
+    }
+
+    /**
+     * Vuelve a leer las coordenadas de todas las rutas activas en una sola consulta.
+     */
+    public synchronized void reload() {
+        List<Object[]> rows = routePointRepository.findActiveRouteCoordinates();
+
+        Map<UUID, WalkingGraph.Polyline> loadedPolylines = new ConcurrentHashMap<>();
+        int start = 0;
+        while (start < rows.size()) {
+            UUID routeId = (UUID) rows.get(start)[0];
+            int end = start;
+            while (end < rows.size() && routeId.equals(rows.get(end)[0])) end++;
+
+            double[] latitudes = new double[end - start];
+            double[] longitudes = new double[end - start];
+            for (int i = start; i < end; i++) {
+                latitudes[i - start] = ((BigDecimal) rows.get(i)[2]).doubleValue();
+                longitudes[i - start] = ((BigDecimal) rows.get(i)[3]).doubleValue();
+            }
+            loadedPolylines.put(routeId, new WalkingGraph.Polyline(routeId, (UUID) rows.get(start)[1], latitudes, longitudes));
+            start = end;
+        }
+
+        polylines.clear();
+        polylines.putAll(loadedPolylines);
+        pendingRoutes.clear();
+        loaded = true;
+        dirty = true;
+        logger.info("🚶 Polilíneas del grafo peatonal cargadas: {} rutas activas", polylines.size());
+    }
+
+    /**
+     * Grafo vigente. Si hay rutas que cambiaron programa la reconstrucción en segundo plano
+     * y devuelve el grafo anterior; solo construye en línea si aún no hay ninguno.
+     */
+    public WalkingGraph getGraph() {
+        if (!built) {
+            return refresh();
+        }
+        if (dirty) {
+            scheduleRebuild();
+        }
+        return graph;
+    }
+
+    /**
+     * Grafo con todos los cambios aplicados, reconstruyéndolo en este hilo si hace falta.
+     * Para tareas en segundo plano (p. ej. la matriz de tiempos).
+     */
+    public synchronized WalkingGraph refresh() {
+        if (!loaded) {
+            reload();
+        }
+        if (dirty) {
+            rebuild();
+        }
+        return graph;
+    }
+
+    /**
+     * Minutos por metro a pie: el ritmo promedio de las rutas activas (sus minutos estimados
+     * entre sus metros), recalculado con cada construcción del grafo.
+     */
+    public double minutesPerMeter() {
+        if (!built) {
+            refresh();
+        }
+        return minutesPerMeter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        if (event.affectsGeometry()) {
+            // Se relee en la siguiente consulta, cuando la caché de geometrías ya se invalidó
+            pendingRoutes.add(event.routeId());
+            dirty = true;
+        }
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private synchronized void rebuild() {
+        if (!dirty) return;
+        // Se baja la marca antes de leer: un cambio concurrente vuelve a marcarla
+        dirty = false;
+
+        List<UUID> changed = new ArrayList<>(pendingRoutes);
+        pendingRoutes.removeAll(changed);
+        for (UUID routeId : changed) {
+            refreshRoute(routeId);
+        }
+
+        WalkingGraph rebuilt = new WalkingGraph(polylines.values(), snapToleranceMeters);
+        minutesPerMeter = averageMinutesPerMeter();
+        graph = rebuilt;
+        built = true;
+        logger.info("🚶 Grafo peatonal construido: {} nodos, {} aristas ({} rutas actualizadas)",
+                rebuilt.nodeCount(), rebuilt.edgeCount(), changed.size());
+    }
+
+    private void scheduleRebuild() {
+        // Varios cambios seguidos se agrupan en una sola reconstrucción
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    refresh();
+                } catch (RuntimeException e) {
+                    logger.error("Error construyendo grafo peatonal: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private double averageMinutesPerMeter() {
+        List<Object[]> totals = routeRepository.findActiveDistanceAndTimeTotals();
+        if (!totals.isEmpty() && totals.get(0)[0] != null && totals.get(0)[1] != null) {
+            double meters = ((Number) totals.get(0)[0]).doubleValue();
+            double minutes = ((Number) totals.get(0)[1]).doubleValue();
+            if (meters > 0 && minutes > 0) {
+                return minutes / meters;
+            }
+        }
+        return 60.0 / (walkingSpeedKmh * 1000.0);
+    }
+
+    private void refreshRoute(UUID routeId) {
+        Optional<Route> route = routeRepository.findById(routeId);
+        if (route.isEmpty() || !Boolean.TRUE.equals(route.get().getIsActive())) {
+            polylines.remove(routeId);
+            return;
+        }
+
+        RouteGeometry geometry = routeGeometryCache.get(route.get());
+        if (geometry.size() == 0) {
+            polylines.remove(routeId);
+            return;
+        }
+        polylines.put(routeId, new WalkingGraph.Polyline(routeId, route.get().getToPlace().getId(),
+                geometry.latitudes(), geometry.longitudes()));
+    }
+}
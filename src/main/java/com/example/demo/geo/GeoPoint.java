@@ -0,0 +1,14 @@
+package com.example.demo.geo;
+
+import java.math.BigDecimal;
+
+/**
+ * Coordenada geográfica con primitivos double. Se usa en los cálculos internos para no
+ * operar con BigDecimal; la persistencia y los DTOs siguen exponiendo BigDecimal.
+ */
+public record GeoPoint(double latitude, double longitude) {
+
+    public static GeoPoint of(BigDecimal latitude, BigDecimal longitude) {
+        return new GeoPoint(latitude.doubleValue(), longitude.doubleValue());
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.geo;
+
+import com.example.demo.exception.BadRequestException;
+
+import java.math.BigDecimal;
+
+/**
+ * Utilidades geográficas compartidas: validación de rangos y núcleos de distancia.
+ */
+public final class GeoUtils {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+
+    public static final double MIN_LATITUDE = -90.0;
+    public static final double MAX_LATITUDE = 90.0;
+    public static final double MIN_LONGITUDE = -180.0;
+    public static final double MAX_LONGITUDE = 180.0;
+
+    // Kilómetros por grado de latitud (constante sobre la esfera)
+    public static final double KM_PER_DEGREE = Math.toRadians(1.0) * EARTH_RADIUS_KM;
+
+    private GeoUtils() {}
+
+    // ✅ VALIDACIÓN (sin crear BigDecimal por llamada)
+
+    public static boolean isValidLatitude(double latitude) {
+        return latitude >= MIN_LATITUDE && latitude <= MAX_LATITUDE;
+    }
+
+    public static boolean isValidLongitude(double longitude) {
+        return longitude >= MIN_LONGITUDE && longitude <= MAX_LONGITUDE;
+    }
+
+    /**
+     * Valida un par de coordenadas de una petición y lanza BadRequestException si no son válidas.
+     */
+    public static void validateCoordinates(BigDecimal latitude, BigDecimal longitude) {
+        if (latitude == null || longitude == null) {
+            throw new BadRequestException("Latitud y longitud son obligatorias");
+        }
+
+        if (!isValidLatitude(latitude.doubleValue())) {
+            throw new BadRequestException("Latitud debe estar entre -90 y 90");
+        }
+
+        if (!isValidLongitude(longitude.doubleValue())) {
+            throw new BadRequestException("Longitud debe estar entre -180 y 180");
+        }
+    }
+
+    // 📏 DISTANCIAS
+
+    /**
+     * Distancia Haversine en kilómetros entre dos coordenadas en grados.
+     */
+    public static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLng = Math.sin(dLng / 2);
+        double a = sinLat * sinLat +
+                Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLng * sinLng;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Distancias equirectangulares en kilómetros desde un origen hacia un lote de puntos.
+     * A escala de campus (pocos km) el error frente a Haversine es despreciable; el coseno
+     * se calcula una vez para el origen, así que el bucle no tiene ramas ni llamadas
+     * trigonométricas y el JIT puede vectorizarlo.
+     */
+    public static void equirectangularKm(double originLat, double originLng,
+                                         double[] latitudes, double[] longitudes, double[] out) {
+        double cosLat = Math.cos(Math.toRadians(originLat));
+        int n = Math.min(latitudes.length, Math.min(longitudes.length, out.length));
+        for (int i = 0; i < n; i++) {
+            double dx = (longitudes[i] - originLng) * cosLat;
+            double dy = latitudes[i] - originLat;
+            out[i] = Math.sqrt(dx * dx + dy * dy) * KM_PER_DEGREE;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.demo.geo;
+
+import com.example.demo.entity.Place;
+import com.example.demo.event.PlaceChangedEvent;
+import com.example.demo.repository.PlaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice espacial en memoria (grilla regular de celdas lat/lng) sobre las coordenadas
+ * de los lugares. Responde consultas por radio sin tocar MySQL; la base de datos
+ * solo se usa para hidratar los lugares encontrados.
+ */
+@Component
+public class PlaceSpatialIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceSpatialIndex.class);
+
+    // ~550 m por celda en el ecuador: un radio de 1 km cubre ~5x5 celdas
+    private static final double CELL_SIZE_DEGREES = 0.005;
+
+    // Por encima de este número de celdas es más barato recorrer todos los puntos
+    private static final int MAX_CELLS_PER_QUERY = 4096;
+
+    // Radio máximo de búsqueda. El error de la aproximación equirectangular frente a Haversine
+    // crece con el radio y la latitud: a 50 km llega a ~1.5 m por km a 45° y ~2.6 m por km a 60°,
+    // y cerca del ecuador (el campus) es menor a 0.1 m por km
+    public static final double MAX_RADIUS_KM = 50.0;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    private volatile Map<Long, Map<UUID, Entry>> cells = new ConcurrentHashMap<>();
+    private volatile Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    private volatile boolean loaded = false;
+
+    public record Entry(UUID id, double latitude, double longitude) {}
+
+    public record Hit(UUID id, double distanceKm) {}
+
+    // Se construye después de los CommandLineRunner (DataLoader) para incluir los datos de ejemplo
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        Map<Long, Map<UUID, Entry>> newCells = new ConcurrentHashMap<>();
+        Map<UUID, Entry> newEntries = new ConcurrentHashMap<>();
+
+        for (Object[] row : placeRepository.findAllCoordinates()) {
+            UUID id = (UUID) row[0];
+            BigDecimal latitude = (BigDecimal) row[1];
+            BigDecimal longitude = (BigDecimal) row[2];
+            if (latitude != null && longitude != null) {
+                insert(newCells, newEntries, new Entry(id, latitude.doubleValue(), longitude.doubleValue()));
+            }
+        }
+
+        // Se reemplaza la grilla completa para que las lecturas concurrentes nunca vean un índice a medias
+        cells = newCells;
+        entries = newEntries;
+        loaded = true;
+        logger.info("🗺️ Índice espacial de lugares construido con {} lugares", entries.size());
+    }
+
+    /**
+     * Lugares dentro del radio indicado, ordenados por distancia ascendente.
+     *
+     * @throws IllegalArgumentException si el radio supera {@link #MAX_RADIUS_KM}
+     */
+    public List<Hit> findWithinRadius(GeoPoint origin, double radiusKm) {
+        if (radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("Radio mayor al máximo de " + MAX_RADIUS_KM + " km: " + radiusKm);
+        }
+        ensureLoaded();
+
+        double latitude = origin.latitude();
+        double longitude = origin.longitude();
+        BoundingBox box = BoundingBox.around(latitude, longitude, radiusKm);
+
+        int minRow = cellIndex(box.minLatitude());
+        int maxRow = cellIndex(box.maxLatitude());
+        int minCol = cellIndex(box.minLongitude());
+        int maxCol = cellIndex(box.maxLongitude());
+
+        List<Entry> candidates = new ArrayList<>();
+        long cellCount = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+
+        if (cellCount > MAX_CELLS_PER_QUERY) {
+            candidates.addAll(entries.values());
+        } else {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    Map<UUID, Entry> cell = cells.get(cellKey(row, col));
+                    if (cell != null) {
+                        candidates.addAll(cell.values());
+                    }
+                }
+            }
+        }
+
+        List<Hit> hits = rank(candidates, latitude, longitude, radiusKm);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    /**
+     * Mantiene el índice sincronizado con las altas, cambios y bajas confirmadas de lugares.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        synchronized (this) {
+            removeEntry(event.placeId());
+            if (!event.isDeleted()) {
+                Place place = event.place();
+                if (place.getLatitude() != null && place.getLongitude() != null) {
+                    GeoPoint location = place.getLocation();
+                    insert(cells, entries, new Entry(place.getId(), location.latitude(), location.longitude()));
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    /**
+     * Distancias de todos los candidatos en un solo lote (núcleo equirectangular, sin
+     * trigonometría por punto) y filtro por radio.
+     */
+    private static List<Hit> rank(List<Entry> candidates, double latitude, double longitude, double radiusKm) {
+        int n = candidates.size();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        double[] distances = new double[n];
+        for (int i = 0; i < n; i++) {
+            Entry entry = candidates.get(i);
+            latitudes[i] = entry.latitude();
+            longitudes[i] = entry.longitude();
+        }
+
+        GeoUtils.equirectangularKm(latitude, longitude, latitudes, longitudes, distances);
+
+        List<Hit> hits = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (distances[i] <= radiusKm) {
+                hits.add(new Hit(candidates.get(i).id(), distances[i]));
+            }
+        }
+        return hits;
+    }
+
+    private static void insert(Map<Long, Map<UUID, Entry>> cells, Map<UUID, Entry> entries, Entry entry) {
+        entries.put(entry.id(), entry);
+        cells.computeIfAbsent(cellKey(cellIndex(entry.latitude()), cellIndex(entry.longitude())),
+                key -> new ConcurrentHashMap<>()).put(entry.id(), entry);
+    }
+
+    private void removeEntry(UUID placeId) {
+        Entry previous = entries.remove(placeId);
+        if (previous == null) return;
+
+        long key = cellKey(cellIndex(previous.latitude()), cellIndex(previous.longitude()));
+        Map<UUID, Entry> cell = cells.get(key);
+        if (cell != null) {
+            cell.remove(placeId);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_SIZE_DEGREES);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
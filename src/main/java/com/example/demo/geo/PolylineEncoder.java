@@ -0,0 +1,44 @@
+package com.example.demo.geo;
+
+/**
+ * Codificación "encoded polyline" de Google (precisión 5, ~1 m). Cada coordenada se envía
+ * como diferencia con la anterior en grupos de 5 bits, así una ruta de campus ocupa
+ * unos pocos caracteres por punto en lugar de dos BigDecimal en JSON.
+ */
+public final class PolylineEncoder {
+
+    public static final String ENCODING = "polyline5";
+
+    private static final double PRECISION = 1e5;
+
+    private PolylineEncoder() {}
+
+    public static String encode(double[] latitudes, double[] longitudes) {
+        int n = Math.min(latitudes.length, longitudes.length);
+        StringBuilder encoded = new StringBuilder(n * 8);
+
+        long previousLat = 0;
+        long previousLng = 0;
+        for (int i = 0; i < n; i++) {
+            long lat = Math.round(latitudes[i] * PRECISION);
+            long lng = Math.round(longitudes[i] * PRECISION);
+            encodeValue(lat - previousLat, encoded);
+            encodeValue(lng - previousLng, encoded);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return encoded.toString();
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private static void encodeValue(long delta, StringBuilder encoded) {
+        // Zigzag: el bit de signo pasa al bit menos significativo
+        long value = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (value >= 0x20) {
+            encoded.append((char) ((0x20 | (value & 0x1f)) + 63));
+            value >>= 5;
+        }
+        encoded.append((char) (value + 63));
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.demo.geo;
+
+import com.example.demo.dto.route.RouteGeometryDTO;
+import com.example.demo.dto.route.RoutePointDTO;
+import com.example.demo.entity.RoutePointType;
+import com.fasterxml.jackson.databind.util.RawValue;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Geometría compilada e inmutable de una ruta: coordenadas en arreglos primitivos,
+ * instrucciones por punto, los DTOs ya construidos, su JSON ya serializado y la
+ * versión compacta (polilínea codificada) y el índice de segmentos para navegación en vivo.
+ * No se deben modificar los arreglos después de construirla.
+ *
+ * @param routeId      id de la ruta
+ * @param version      updatedAt de la ruta cuando se compiló, en microsegundos (ver {@link #versionOf})
+ * @param active       si la ruta estaba activa
+ * @param latitudes    latitud de cada punto, en orden
+ * @param longitudes   longitud de cada punto, en orden
+ * @param pointTypes   tipo de cada punto
+ * @param instructions instrucción de cada punto (puede ser null)
+ * @param points       DTOs de los puntos (lista inmutable)
+ * @param pointsJson   JSON de {@code points}, listo para escribirse tal cual en la respuesta
+ * @param compact      polilínea codificada con instrucciones dispersas
+ * @param segments     índice de segmentos (null si la ruta no tiene puntos)
+ */
+public record RouteGeometry(UUID routeId,
+                            LocalDateTime version,
+                            boolean active,
+                            double[] latitudes,
+                            double[] longitudes,
+                            RoutePointType[] pointTypes,
+                            String[] instructions,
+                            List<RoutePointDTO> points,
+                            RawValue pointsJson,
+                            RouteGeometryDTO compact,
+                            RouteSegmentIndex segments) {
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    public boolean isCurrent(LocalDateTime routeUpdatedAt) {
+        return Objects.equals(version, versionOf(routeUpdatedAt));
+    }
+
+    /**
+     * Versión comparable de un updatedAt: la columna guarda microsegundos, así que el valor
+     * de una entidad recién guardada (nanosegundos) y el leído de la base de datos coinciden.
+     */
+    public static LocalDateTime versionOf(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.truncatedTo(ChronoUnit.MICROS) : null;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.geo;
+
+import com.example.demo.dto.route.RouteGeometryDTO;
+import com.example.demo.dto.route.RouteInstructionDTO;
+import com.example.demo.dto.route.RoutePointDTO;
+import com.example.demo.entity.Route;
+import com.example.demo.entity.RoutePoint;
+import com.example.demo.entity.RoutePointType;
+import com.example.demo.event.RouteChangedEvent;
+import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.repository.RoutePointRepository;
+import com.example.demo.repository.RouteRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Caché de geometrías de ruta compiladas. Los puntos solo cambian cuando un admin edita
+ * o elimina la ruta, así que cada ruta se compila una vez y se invalida con RouteChangedEvent.
+ * Cada entrada lleva el updatedAt de la ruta como versión y solo se sirve si coincide con el
+ * actual, así que un cambio hecho en otra instancia o una compilación que se cruzó con el
+ * commit no se sirven desactualizados. Una versión vieja nunca reemplaza a una más nueva.
+ */
+@Component
+public class RouteGeometryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteGeometryCache.class);
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private RoutePointRepository routePointRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Cache<UUID, RouteGeometry> geometries;
+
+    public RouteGeometryCache(@Value("${routes.geometry-cache.max-routes:1000}") long maxRoutes,
+                              @Value("${routes.geometry-cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.geometries = Caffeine.newBuilder()
+                .maximumSize(maxRoutes)
+                .expireAfterWrite(expireAfterWrite)
+                .build();
+    }
+
+    /**
+     * Geometría de la ruta. Una entrada en caché solo se usa si su versión coincide con el
+     * updatedAt actual (una consulta de una sola columna); si no, se carga la ruta y se recompila.
+     */
+    public RouteGeometry get(UUID routeId) {
+        RouteGeometry cached = geometries.getIfPresent(routeId);
+        if (cached != null) {
+            Optional<LocalDateTime> updatedAt = routeRepository.findUpdatedAtById(routeId);
+            if (updatedAt.isPresent() && cached.isCurrent(updatedAt.get())) {
+                return cached;
+            }
+        }
+
+        Route route = routeRepository.findById(routeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ruta", "id", routeId));
+        return get(route);
+    }
+
+    /**
+     * Geometría de una ruta ya cargada; se recompila si su updatedAt no coincide con la versión en caché.
+     */
+    public RouteGeometry get(Route route) {
+        RouteGeometry cached = geometries.getIfPresent(route.getId());
+        if (cached != null && cached.isCurrent(route.getUpdatedAt())) {
+            return cached;
+        }
+
+        RouteGeometry compiled = compile(route);
+        // Se compila fuera del lock; al guardar, una versión más nueva ya en caché se conserva
+        geometries.asMap().compute(route.getId(),
+                (id, existing) -> existing != null && !isOlder(existing, compiled) ? existing : compiled);
+        return compiled;
+    }
+
+    public void invalidate(UUID routeId) {
+        geometries.invalidate(routeId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        if (event.affectsGeometry()) {
+            invalidate(event.routeId());
+        }
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    // Sin updatedAt (ruta recién creada sin flush) se considera la versión más antigua
+    private static boolean isOlder(RouteGeometry geometry, RouteGeometry other) {
+        if (geometry.version() == null) return other.version() != null;
+        return other.version() != null && geometry.version().isBefore(other.version());
+    }
+
+    private RouteGeometry compile(Route route) {
+        List<RoutePoint> routePoints = routePointRepository.findByRouteIdOrderByOrderIndexAsc(route.getId());
+
+        int n = routePoints.size();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        RoutePointType[] pointTypes = new RoutePointType[n];
+        String[] instructions = new String[n];
+        List<RouteInstructionDTO> sparseInstructions = new ArrayList<>();
+
+        for (int i = 0; i < n; i++) {
+            RoutePoint point = routePoints.get(i);
+            latitudes[i] = point.getLatitude().doubleValue();
+            longitudes[i] = point.getLongitude().doubleValue();
+            pointTypes[i] = point.getPointType();
+            instructions[i] = point.getInstruction();
+
+            // Los puntos intermedios sin texto solo aportan coordenadas
+            if (point.getInstruction() != null || point.getLandmarkDescription() != null
+                    || point.getPointType() != RoutePointType.WAYPOINT) {
+                sparseInstructions.add(new RouteInstructionDTO(i, point.getPointType(),
+                        point.getInstruction(), point.getLandmarkDescription()));
+            }
+        }
+
+        RouteGeometryDTO compact = new RouteGeometryDTO(PolylineEncoder.ENCODING,
+                PolylineEncoder.encode(latitudes, longitudes), n, List.copyOf(sparseInstructions));
+
+        List<RoutePointDTO> points = routePoints.stream()
+                .map(RoutePointDTO::fromEntity)
+                .toList();
+
+        RawValue pointsJson;
+        try {
+            // SerializedString conserva los bytes UTF-8 y se escribe sin volver a codificar
+            pointsJson = new RawValue(new SerializedString(objectMapper.writeValueAsString(points)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la geometría de la ruta " + route.getId(), e);
+        }
+
+        logger.debug("🧩 Geometría compilada para ruta {} ({} puntos)", route.getId(), n);
+        return new RouteGeometry(route.getId(), RouteGeometry.versionOf(route.getUpdatedAt()), Boolean.TRUE.equals(route.getIsActive()),
+                latitudes, longitudes, pointTypes, instructions, points, pointsJson, compact,
+                n > 0 ? new RouteSegmentIndex(latitudes, longitudes) : null);
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.demo.geo;
+
+/**
+ * Índice de segmentos de una ruta para ajustar ("snap") posiciones en vivo. Los puntos se
+ * proyectan a un plano local en metros y los segmentos consecutivos se agrupan en una
+ * jerarquía de cajas (BVH) guardada en arreglos planos. Como los segmentos de una ruta
+ * son contiguos, partir por rango de índices ya da cajas compactas; la búsqueda del
+ * segmento más cercano desciende primero por la caja más próxima y poda el resto, así
+ * que en la práctica visita O(log n) nodos.
+ * Inmutable después de construirse: se comparte entre todos los usuarios que navegan la ruta.
+ */
+public final class RouteSegmentIndex {
+
+    // Segmentos por hoja: por debajo de esto es más barato probarlos todos
+    private static final int LEAF_SIZE = 4;
+
+    private static final double METERS_PER_DEGREE = GeoUtils.KM_PER_DEGREE * 1000.0;
+
+    // Origen y escala de la proyección local
+    private final double originLat;
+    private final double originLng;
+    private final double metersPerDegreeLng;
+
+    // Vértices proyectados y distancia acumulada desde el inicio hasta cada vértice
+    private final double[] x;
+    private final double[] y;
+    private final double[] cumulativeMeters;
+
+    // Nodos de la jerarquía: caja, hijos (-1 en hojas) y rango de segmentos [first, last)
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+    private final int[] left;
+    private final int[] right;
+    private final int[] first;
+    private final int[] last;
+    private int nodeCount;
+
+    /**
+     * Resultado del ajuste de una posición a la ruta.
+     *
+     * @param segmentIndex     segmento más cercano (va del punto i al punto i + 1)
+     * @param fraction         posición sobre el segmento, entre 0 y 1
+     * @param latitude         latitud del punto ajustado
+     * @param longitude        longitud del punto ajustado
+     * @param distanceMeters   distancia de la posición a la ruta
+     * @param traveledMeters   distancia recorrida sobre la ruta hasta el punto ajustado
+     */
+    public record Snap(int segmentIndex,
+                       double fraction,
+                       double latitude,
+                       double longitude,
+                       double distanceMeters,
+                       double traveledMeters) {}
+
+    public RouteSegmentIndex(double[] latitudes, double[] longitudes) {
+        int n = Math.min(latitudes.length, longitudes.length);
+        if (n == 0) {
+            throw new IllegalArgumentException("La ruta no tiene puntos");
+        }
+
+        this.originLat = latitudes[0];
+        this.originLng = longitudes[0];
+        this.metersPerDegreeLng = METERS_PER_DEGREE * Math.cos(Math.toRadians(originLat));
+
+        // Una ruta de un solo punto se trata como un segmento de longitud cero
+        int points = Math.max(n, 2);
+        this.x = new double[points];
+        this.y = new double[points];
+        this.cumulativeMeters = new double[points];
+        for (int i = 0; i < points; i++) {
+            int source = Math.min(i, n - 1);
+            x[i] = (longitudes[source] - originLng) * metersPerDegreeLng;
+            y[i] = (latitudes[source] - originLat) * METERS_PER_DEGREE;
+            if (i > 0) {
+                cumulativeMeters[i] = cumulativeMeters[i - 1] + Math.hypot(x[i] - x[i - 1], y[i] - y[i - 1]);
+            }
+        }
+
+        int segments = points - 1;
+        // Cada hoja tiene al menos un segmento, así que hay a lo sumo 2 * segments - 1 nodos
+        int maxNodes = 2 * segments;
+        this.minX = new double[maxNodes];
+        this.minY = new double[maxNodes];
+        this.maxX = new double[maxNodes];
+        this.maxY = new double[maxNodes];
+        this.left = new int[maxNodes];
+        this.right = new int[maxNodes];
+        this.first = new int[maxNodes];
+        this.last = new int[maxNodes];
+        build(0, segments);
+    }
+
+    public int segmentCount() {
+        return x.length - 1;
+    }
+
+    public double totalMeters() {
+        return cumulativeMeters[cumulativeMeters.length - 1];
+    }
+
+    /**
+     * Distancia recorrida sobre la ruta desde el inicio hasta el punto indicado.
+     */
+    public double cumulativeMeters(int pointIndex) {
+        return cumulativeMeters[Math.min(pointIndex, cumulativeMeters.length - 1)];
+    }
+
+    /**
+     * Ajusta una posición al segmento más cercano de la ruta.
+     */
+    public Snap snap(double latitude, double longitude) {
+        double px = (longitude - originLng) * metersPerDegreeLng;
+        double py = (latitude - originLat) * METERS_PER_DEGREE;
+
+        Nearest nearest = new Nearest();
+        search(0, px, py, nearest);
+
+        int segment = nearest.segment;
+        double t = nearest.fraction;
+        double sx = x[segment] + t * (x[segment + 1] - x[segment]);
+        double sy = y[segment] + t * (y[segment + 1] - y[segment]);
+        double segmentLength = cumulativeMeters[segment + 1] - cumulativeMeters[segment];
+
+        return new Snap(segment, t,
+                originLat + sy / METERS_PER_DEGREE,
+                originLng + sx / metersPerDegreeLng,
+                Math.sqrt(nearest.distanceSquared),
+                cumulativeMeters[segment] + t * segmentLength);
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private static final class Nearest {
+        int segment;
+        double fraction;
+        double distanceSquared = Double.POSITIVE_INFINITY;
+    }
+
+    private int build(int from, int to) {
+        int node = nodeCount++;
+        first[node] = from;
+        last[node] = to;
+
+        if (to - from <= LEAF_SIZE) {
+            left[node] = -1;
+            right[node] = -1;
+            double bMinX = Double.POSITIVE_INFINITY, bMinY = Double.POSITIVE_INFINITY;
+            double bMaxX = Double.NEGATIVE_INFINITY, bMaxY = Double.NEGATIVE_INFINITY;
+            // Los vértices de los segmentos [from, to) son from..to
+            for (int i = from; i <= to; i++) {
+                bMinX = Math.min(bMinX, x[i]);
+                bMinY = Math.min(bMinY, y[i]);
+                bMaxX = Math.max(bMaxX, x[i]);
+                bMaxY = Math.max(bMaxY, y[i]);
+            }
+            minX[node] = bMinX;
+            minY[node] = bMinY;
+            maxX[node] = bMaxX;
+            maxY[node] = bMaxY;
+            return node;
+        }
+
+        int mid = (from + to) >>> 1;
+        int l = build(from, mid);
+        int r = build(mid, to);
+        left[node] = l;
+        right[node] = r;
+        minX[node] = Math.min(minX[l], minX[r]);
+        minY[node] = Math.min(minY[l], minY[r]);
+        maxX[node] = Math.max(maxX[l], maxX[r]);
+        maxY[node] = Math.max(maxY[l], maxY[r]);
+        return node;
+    }
+
+    private void search(int node, double px, double py, Nearest nearest) {
+        if (left[node] < 0) {
+            for (int i = first[node]; i < last[node]; i++) {
+                testSegment(i, px, py, nearest);
+            }
+            return;
+        }
+
+        int l = left[node];
+        int r = right[node];
+        double dl = boxDistanceSquared(l, px, py);
+        double dr = boxDistanceSquared(r, px, py);
+
+        // Primero la caja más cercana: su resultado suele podar la otra. Una caja a la misma
+        // distancia que el mejor no se poda: puede tener un segmento anterior empatado
+        if (dl <= dr) {
+            if (dl <= nearest.distanceSquared) search(l, px, py, nearest);
+            if (dr <= nearest.distanceSquared) search(r, px, py, nearest);
+        } else {
+            if (dr <= nearest.distanceSquared) search(r, px, py, nearest);
+            if (dl <= nearest.distanceSquared) search(l, px, py, nearest);
+        }
+    }
+
+    private void testSegment(int i, double px, double py, Nearest nearest) {
+        double ax = x[i], ay = y[i];
+        double dx = x[i + 1] - ax, dy = y[i + 1] - ay;
+        double lengthSquared = dx * dx + dy * dy;
+
+        double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+        t = Math.max(0, Math.min(1, t));
+
+        double cx = ax + t * dx - px;
+        double cy = ay + t * dy - py;
+        double distanceSquared = cx * cx + cy * cy;
+
+        // En empate gana el segmento anterior, que es el que aparece primero en el recorrido
+        if (distanceSquared < nearest.distanceSquared
+                || (distanceSquared == nearest.distanceSquared && i < nearest.segment)) {
+            nearest.segment = i;
+            nearest.fraction = t;
+            nearest.distanceSquared = distanceSquared;
+        }
+    }
+
+    private double boxDistanceSquared(int node, double px, double py) {
+        double dx = Math.max(0, Math.max(minX[node] - px, px - maxX[node]));
+        double dy = Math.max(0, Math.max(minY[node] - py, py - maxY[node]));
+        return dx * dx + dy * dy;
+    }
+}
@@ -0,0 +1,448 @@
+package com.example.demo.geo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Grafo peatonal inmutable construido a partir de las polilíneas de las rutas activas.
+ * Los puntos a menos de la tolerancia se fusionan en un mismo nodo (así se conectan
+ * rutas que comparten pasillos o cruces) y cada par de puntos consecutivos de una ruta
+ * aporta una arista no dirigida. Las aristas se guardan en formato CSR (offsets,
+ * destinos y pesos en arreglos primitivos) y las coordenadas se proyectan a un plano
+ * local en metros, de modo que la heurística euclidiana de A* es admisible.
+ */
+public final class WalkingGraph {
+
+    private static final double METERS_PER_DEGREE = GeoUtils.KM_PER_DEGREE * 1000.0;
+
+    public static final WalkingGraph EMPTY = new WalkingGraph(List.of(), 1.0);
+
+    /**
+     * Polilínea de una ruta activa.
+     *
+     * @param routeId       id de la ruta
+     * @param destinationId lugar al que llega la ruta
+     * @param latitudes     latitud de cada punto, en orden
+     * @param longitudes    longitud de cada punto, en orden
+     */
+    public record Polyline(UUID routeId, UUID destinationId, double[] latitudes, double[] longitudes) {}
+
+    /**
+     * Camino encontrado por A*.
+     *
+     * @param latitudes      latitud de cada nodo del camino, desde el origen
+     * @param longitudes     longitud de cada nodo del camino, desde el origen
+     * @param accessMeters   distancia desde el origen hasta el primer nodo del grafo
+     * @param graphMeters    distancia recorrida sobre el grafo
+     * @param egressMeters   distancia desde el último nodo hasta el lugar, si no termina en él
+     */
+    public record Path(double[] latitudes, double[] longitudes, double accessMeters, double graphMeters,
+                       double egressMeters) {
+
+        public double totalMeters() {
+            return accessMeters + graphMeters + egressMeters;
+        }
+
+        /**
+         * El mismo camino con un tramo final en línea recta desde el último nodo hasta el punto dado.
+         */
+        public Path withEgress(double latitude, double longitude, double meters) {
+            double[] pathLat = Arrays.copyOf(latitudes, latitudes.length + 1);
+            double[] pathLng = Arrays.copyOf(longitudes, longitudes.length + 1);
+            pathLat[latitudes.length] = latitude;
+            pathLng[longitudes.length] = longitude;
+            return new Path(pathLat, pathLng, accessMeters, graphMeters, meters);
+        }
+    }
+
+    // Proyección local
+    private final double originLat;
+    private final double originLng;
+    private final double metersPerDegreeLng;
+
+    // Nodos
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] x;
+    private final double[] y;
+
+    // Aristas en CSR: los vecinos de u son targets[offsets[u] .. offsets[u + 1])
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+
+    // Nodos donde terminan las rutas de cada destino
+    private final Map<UUID, int[]> destinationNodes;
+
+    public WalkingGraph(Collection<Polyline> polylines, double snapToleranceMeters) {
+        Polyline reference = polylines.stream()
+                .filter(p -> p.latitudes().length > 0)
+                .findFirst()
+                .orElse(null);
+        this.originLat = reference != null ? reference.latitudes()[0] : 0.0;
+        this.originLng = reference != null ? reference.longitudes()[0] : 0.0;
+        this.metersPerDegreeLng = METERS_PER_DEGREE * Math.cos(Math.toRadians(originLat));
+
+        Builder builder = new Builder(snapToleranceMeters);
+        Map<UUID, List<Integer>> ends = new HashMap<>();
+        for (Polyline polyline : polylines) {
+            int previous = -1;
+            int n = Math.min(polyline.latitudes().length, polyline.longitudes().length);
+            for (int i = 0; i < n; i++) {
+                int node = builder.nodeAt(polyline.latitudes()[i], polyline.longitudes()[i]);
+                if (previous >= 0 && previous != node) {
+                    builder.addEdge(previous, node);
+                }
+                previous = node;
+            }
+            if (previous >= 0) {
+                ends.computeIfAbsent(polyline.destinationId(), id -> new ArrayList<>()).add(previous);
+            }
+        }
+
+        int nodes = builder.nodeCount;
+        this.latitudes = Arrays.copyOf(builder.nodeLat, nodes);
+        this.longitudes = Arrays.copyOf(builder.nodeLng, nodes);
+        this.x = Arrays.copyOf(builder.nodeX, nodes);
+        this.y = Arrays.copyOf(builder.nodeY, nodes);
+
+        // CSR: contar grados, acumular offsets y colocar cada arista en ambos sentidos
+        int edges = builder.edgeCount;
+        this.offsets = new int[nodes + 1];
+        for (int e = 0; e < edges; e++) {
+            offsets[builder.edgeFrom[e] + 1]++;
+            offsets[builder.edgeTo[e] + 1]++;
+        }
+        for (int u = 0; u < nodes; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        this.targets = new int[2 * edges];
+        this.weights = new double[2 * edges];
+        int[] cursor = Arrays.copyOf(offsets, nodes);
+        for (int e = 0; e < edges; e++) {
+            int a = builder.edgeFrom[e];
+            int b = builder.edgeTo[e];
+            double w = Math.hypot(x[a] - x[b], y[a] - y[b]);
+            targets[cursor[a]] = b;
+            weights[cursor[a]++] = w;
+            targets[cursor[b]] = a;
+            weights[cursor[b]++] = w;
+        }
+
+        Map<UUID, int[]> destinations = new HashMap<>();
+        ends.forEach((id, list) -> destinations.put(id, list.stream().mapToInt(Integer::intValue).distinct().toArray()));
+        this.destinationNodes = Collections.unmodifiableMap(destinations);
+    }
+
+    public int nodeCount() {
+        return latitudes.length;
+    }
+
+    public int edgeCount() {
+        return targets.length / 2;
+    }
+
+    public boolean hasDestination(UUID placeId) {
+        return destinationNodes.containsKey(placeId);
+    }
+
+    public Set<UUID> destinationIds() {
+        return destinationNodes.keySet();
+    }
+
+    /**
+     * Nodos donde terminan las rutas hacia el destino, o arreglo vacío si no hay ninguna.
+     */
+    public int[] destinationNodes(UUID placeId) {
+        return destinationNodes.getOrDefault(placeId, new int[0]);
+    }
+
+    /**
+     * Nodo más cercano a la coordenada dentro de la distancia máxima, o -1 si no hay ninguno.
+     * Recorrido lineal sobre arreglos primitivos: a escala de campus son pocos miles de nodos.
+     */
+    public int nearestNode(double latitude, double longitude, double maxDistanceMeters) {
+        double px = projectX(longitude);
+        double py = projectY(latitude);
+        double bestSquared = maxDistanceMeters * maxDistanceMeters;
+        int best = -1;
+        for (int i = 0; i < x.length; i++) {
+            double dx = x[i] - px;
+            double dy = y[i] - py;
+            double d = dx * dx + dy * dy;
+            if (d <= bestSquared) {
+                bestSquared = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    public double distanceToNodeMeters(int node, double latitude, double longitude) {
+        return Math.hypot(x[node] - projectX(longitude), y[node] - projectY(latitude));
+    }
+
+    /**
+     * Camino más corto desde el origen hasta cualquiera de los nodos destino (A* con
+     * heurística euclidiana al destino más cercano). Devuelve null si no hay conexión.
+     */
+    public Path shortestPath(double fromLat, double fromLng, int startNode, int[] goalNodes) {
+        if (goalNodes.length == 0) {
+            return null;
+        }
+
+        int n = nodeCount();
+        double[] distance = new double[n];
+        int[] parent = new int[n];
+        boolean[] closed = new boolean[n];
+        boolean[] goal = new boolean[n];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, -1);
+        for (int g : goalNodes) {
+            goal[g] = true;
+        }
+
+        MinHeap open = new MinHeap(Math.max(16, n));
+        distance[startNode] = 0;
+        open.push(startNode, heuristic(startNode, goalNodes));
+
+        int reached = -1;
+        while (!open.isEmpty()) {
+            int u = open.pop();
+            if (closed[u]) continue; // entrada obsoleta del heap
+            closed[u] = true;
+            if (goal[u]) {
+                reached = u;
+                break;
+            }
+
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double candidate = distance[u] + weights[e];
+                if (candidate < distance[v]) {
+                    distance[v] = candidate;
+                    parent[v] = u;
+                    open.push(v, candidate + heuristic(v, goalNodes));
+                }
+            }
+        }
+
+        if (reached < 0) {
+            return null;
+        }
+
+        int length = 0;
+        for (int v = reached; v >= 0; v = parent[v]) length++;
+
+        // El origen va primero, seguido de los nodos del camino
+        double[] pathLat = new double[length + 1];
+        double[] pathLng = new double[length + 1];
+        pathLat[0] = fromLat;
+        pathLng[0] = fromLng;
+        int i = length;
+        for (int v = reached; v >= 0; v = parent[v], i--) {
+            pathLat[i] = latitudes[v];
+            pathLng[i] = longitudes[v];
+        }
+
+        return new Path(pathLat, pathLng, distanceToNodeMeters(startNode, fromLat, fromLng), distance[reached], 0);
+    }
+
+    /**
+     * Distancias sobre el grafo desde el más cercano de los nodos origen hacia todos los
+     * demás (Dijkstra completo). Los nodos inalcanzables quedan en infinito.
+     */
+    public double[] distancesFrom(int... sources) {
+        int n = nodeCount();
+        double[] distance = new double[n];
+        boolean[] closed = new boolean[n];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+
+        MinHeap open = new MinHeap(Math.max(16, n));
+        for (int source : sources) {
+            distance[source] = 0;
+            open.push(source, 0);
+        }
+
+        while (!open.isEmpty()) {
+            int u = open.pop();
+            if (closed[u]) continue;
+            closed[u] = true;
+
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                double candidate = distance[u] + weights[e];
+                if (candidate < distance[v]) {
+                    distance[v] = candidate;
+                    open.push(v, candidate);
+                }
+            }
+        }
+        return distance;
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private double projectX(double longitude) {
+        return (longitude - originLng) * metersPerDegreeLng;
+    }
+
+    private double projectY(double latitude) {
+        return (latitude - originLat) * METERS_PER_DEGREE;
+    }
+
+    private double heuristic(int node, int[] goalNodes) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int g : goalNodes) {
+            best = Math.min(best, Math.hypot(x[node] - x[g], y[node] - y[g]));
+        }
+        return best;
+    }
+
+    /**
+     * Acumula nodos y aristas durante la construcción. Los nodos se fusionan con una
+     * grilla hash de celdas del tamaño de la tolerancia (basta revisar las 3x3 vecinas).
+     */
+    private final class Builder {
+
+        private final double tolerance;
+        private final Map<Long, List<Integer>> cells = new HashMap<>();
+
+        double[] nodeLat = new double[64];
+        double[] nodeLng = new double[64];
+        double[] nodeX = new double[64];
+        double[] nodeY = new double[64];
+        int nodeCount;
+
+        int[] edgeFrom = new int[64];
+        int[] edgeTo = new int[64];
+        int edgeCount;
+
+        Builder(double tolerance) {
+            this.tolerance = Math.max(tolerance, 0.01);
+        }
+
+        int nodeAt(double latitude, double longitude) {
+            double px = projectX(longitude);
+            double py = projectY(latitude);
+            long cx = (long) Math.floor(px / tolerance);
+            long cy = (long) Math.floor(py / tolerance);
+
+            int best = -1;
+            double bestSquared = tolerance * tolerance;
+            for (long i = cx - 1; i <= cx + 1; i++) {
+                for (long j = cy - 1; j <= cy + 1; j++) {
+                    List<Integer> cell = cells.get(cellKey(i, j));
+                    if (cell == null) continue;
+                    for (int node : cell) {
+                        double dx = nodeX[node] - px;
+                        double dy = nodeY[node] - py;
+                        double d = dx * dx + dy * dy;
+                        if (d <= bestSquared) {
+                            bestSquared = d;
+                            best = node;
+                        }
+                    }
+                }
+            }
+            if (best >= 0) {
+                return best;
+            }
+
+            if (nodeCount == nodeX.length) {
+                int capacity = nodeCount * 2;
+                nodeLat = Arrays.copyOf(nodeLat, capacity);
+                nodeLng = Arrays.copyOf(nodeLng, capacity);
+                nodeX = Arrays.copyOf(nodeX, capacity);
+                nodeY = Arrays.copyOf(nodeY, capacity);
+            }
+            int node = nodeCount++;
+            nodeLat[node] = latitude;
+            nodeLng[node] = longitude;
+            nodeX[node] = px;
+            nodeY[node] = py;
+            cells.computeIfAbsent(cellKey(cx, cy), k -> new ArrayList<>()).add(node);
+            return node;
+        }
+
+        void addEdge(int from, int to) {
+            if (edgeCount == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+            }
+            edgeFrom[edgeCount] = from;
+            edgeTo[edgeCount] = to;
+            edgeCount++;
+        }
+
+        private long cellKey(long cx, long cy) {
+            return (cx << 32) ^ (cy & 0xffffffffL);
+        }
+    }
+
+    /**
+     * Heap binario mínimo sobre arreglos primitivos con borrado perezoso
+     * (un nodo puede aparecer varias veces; las entradas obsoletas se descartan al salir).
+     */
+    private static final class MinHeap {
+
+        private double[] keys;
+        private int[] nodes;
+        private int size;
+
+        MinHeap(int capacity) {
+            keys = new double[capacity];
+            nodes = new int[capacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int node, double key) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int p = (i - 1) >>> 1;
+                if (keys[p] <= key) break;
+                keys[i] = keys[p];
+                nodes[i] = nodes[p];
+                i = p;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            if (size > 0) {
+                double key = keys[size];
+                int node = nodes[size];
+                int i = 0;
+                while (true) {
+                    int c = 2 * i + 1;
+                    if (c >= size) break;
+                    if (c + 1 < size && keys[c + 1] < keys[c]) c++;
+                    if (keys[c] >= key) break;
+                    keys[i] = keys[c];
+                    nodes[i] = nodes[c];
+                    i = c;
+                }
+                keys[i] = key;
+                nodes[i] = node;
+            }
+            return top;
+        }
+    }
+}
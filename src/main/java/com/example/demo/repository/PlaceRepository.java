@@ -1,13 +1,18 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.place.PlaceSummaryDTO;
 import com.example.demo.entity.Place;
 import com.example.demo.entity.PlaceType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,12 +28,29 @@ public interface PlaceRepository extends JpaRepository<Place, UUID> {
     
     Optional<Place> findByWhat3words(String what3words);
     
-    @Query("SELECT p FROM Place p WHERE " +
-           "LOWER(p.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.category) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.description) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.what3words) LIKE LOWER(CONCAT('%', :query, '%'))")
-    List<Place> searchPlaces(@Param("query") String query);
+    // 📦 Variantes con equipamiento y accesibilidad cargados (evitan 2N consultas al mapear a PlaceDTO)
+    
+    @EntityGraph(Place.DETAILS_GRAPH)
+    @Query("SELECT p FROM Place p")
+    List<Place> findAllWithDetails();
+    
+    @EntityGraph(Place.DETAILS_GRAPH)
+    Optional<Place> findWithDetailsById(UUID id);
+    
+    @EntityGraph(Place.DETAILS_GRAPH)
+    Optional<Place> findWithDetailsByWhat3words(String what3words);
+    
+    @EntityGraph(Place.DETAILS_GRAPH)
+    List<Place> findWithDetailsByIdIn(Collection<UUID> ids);
+    
+    @EntityGraph(Place.DETAILS_GRAPH)
+    List<Place> findWithDetailsByPlaceType(PlaceType placeType);
+    
+    @EntityGraph(Place.DETAILS_GRAPH)
+    List<Place> findWithDetailsByIsAvailable(Boolean isAvailable);
+    
+    @EntityGraph(Place.DETAILS_GRAPH)
+    List<Place> findWithDetailsByBuildingName(String buildingName);
     
     @Query("SELECT p FROM Place p WHERE " +
            "p.placeType = :placeType AND p.isAvailable = :isAvailable")
@@ -37,21 +59,75 @@ public interface PlaceRepository extends JpaRepository<Place, UUID> {
         @Param("isAvailable") Boolean isAvailable
     );
     
-    // Custom query for nearby places using Haversine formula
-    @Query(value = "SELECT *, " +
-           "(6371 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
-           "cos(radians(longitude) - radians(:lng)) + " +
-           "sin(radians(:lat)) * sin(radians(latitude)))) AS distance " +
-           "FROM places " +
-           "WHERE (6371 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
-           "cos(radians(longitude) - radians(:lng)) + " +
-           "sin(radians(:lat)) * sin(radians(latitude)))) <= :radiusKm " +
-           "ORDER BY distance", 
-           nativeQuery = true)
-    List<Place> findNearbyPlaces(@Param("lat") BigDecimal latitude, 
-                                @Param("lng") BigDecimal longitude, 
-                                @Param("radiusKm") BigDecimal radiusKm);
+    // 📍 Proyecciones resumidas (solo id, nombre, tipo, coordenadas y disponibilidad)
+    
+    String SUMMARY_SELECT = "SELECT new com.example.demo.dto.place.PlaceSummaryDTO(" +
+           "p.id, p.name, p.placeType, p.latitude, p.longitude, p.isAvailable) FROM Place p ";
+    
+    @Query(SUMMARY_SELECT)
+    List<PlaceSummaryDTO> findAllSummaries();
+    
+    @Query(SUMMARY_SELECT + "WHERE p.placeType = :placeType")
+    List<PlaceSummaryDTO> findSummariesByPlaceType(@Param("placeType") PlaceType placeType);
     
+    @Query(SUMMARY_SELECT + "WHERE p.isAvailable = :isAvailable")
+    List<PlaceSummaryDTO> findSummariesByIsAvailable(@Param("isAvailable") Boolean isAvailable);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.buildingName = :buildingName")
+    List<PlaceSummaryDTO> findSummariesByBuildingName(@Param("buildingName") String buildingName);
+    
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PlaceSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<UUID> ids);
+    
+    // 📄 Paginación por keyset: ids ordenados por (name, id) a partir del último entregado
+    
+    @Query("SELECT p.id FROM Place p WHERE " +
+           "p.name > :lastName OR (p.name = :lastName AND p.id > :lastId) " +
+           "ORDER BY p.name, p.id")
+    List<UUID> findIdsAfter(@Param("lastName") String lastName,
+                            @Param("lastId") UUID lastId,
+                            Pageable pageable);
+    
+    @Query("SELECT p.id FROM Place p WHERE p.placeType = :placeType AND " +
+           "(p.name > :lastName OR (p.name = :lastName AND p.id > :lastId)) " +
+           "ORDER BY p.name, p.id")
+    List<UUID> findIdsByPlaceTypeAfter(@Param("placeType") PlaceType placeType,
+                                       @Param("lastName") String lastName,
+                                       @Param("lastId") UUID lastId,
+                                       Pageable pageable);
+    
+    @Query("SELECT p.id FROM Place p WHERE p.isAvailable = :isAvailable AND " +
+           "(p.name > :lastName OR (p.name = :lastName AND p.id > :lastId)) " +
+           "ORDER BY p.name, p.id")
+    List<UUID> findIdsByIsAvailableAfter(@Param("isAvailable") Boolean isAvailable,
+                                         @Param("lastName") String lastName,
+                                         @Param("lastId") UUID lastId,
+                                         Pageable pageable);
+    
+    @Query("SELECT p.id FROM Place p WHERE p.buildingName = :buildingName AND " +
+           "(p.name > :lastName OR (p.name = :lastName AND p.id > :lastId)) " +
+           "ORDER BY p.name, p.id")
+    List<UUID> findIdsByBuildingNameAfter(@Param("buildingName") String buildingName,
+                                          @Param("lastName") String lastName,
+                                          @Param("lastId") UUID lastId,
+                                          Pageable pageable);
+    
+    // Coordenadas de todos los lugares (para el índice espacial en memoria)
+    @Query("SELECT p.id, p.latitude, p.longitude FROM Place p")
+    List<Object[]> findAllCoordinates();
+
+    // Campos de las sugerencias de autocompletado (sin cargar colecciones)
+    @Query("SELECT p.id, p.name, p.roomCode, p.buildingName FROM Place p")
+    List<Object[]> findAllSuggestionFields();
+
+    // Contador de rutas con escritura diferida (UsageCounterService); nunca baja de cero
+    @Modifying
+    @Transactional
+    @Query("UPDATE Place p SET p.routeCount = " +
+           "CASE WHEN p.routeCount + :delta < 0 THEN 0 ELSE p.routeCount + :delta END " +
+           "WHERE p.id IN :ids")
+    int adjustRouteCount(@Param("ids") Collection<UUID> ids, @Param("delta") int delta);
+
     @Query("SELECT p FROM Place p WHERE p.floorNumber = :floorNumber")
     List<Place> findByFloorNumber(@Param("floorNumber") Integer floorNumber);
 }
\ No newline at end of file
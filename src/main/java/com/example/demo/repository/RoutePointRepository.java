@@ -41,4 +41,9 @@ public interface RoutePointRepository extends JpaRepository<RoutePoint, UUID> {
     // Encontrar punto anterior en la secuencia
     @Query("SELECT rp FROM RoutePoint rp WHERE rp.route = :route AND rp.orderIndex < :currentIndex ORDER BY rp.orderIndex DESC")
     List<RoutePoint> findPreviousPoints(@Param("route") Route route, @Param("currentIndex") Integer currentIndex);
+    
+    // Coordenadas de todas las rutas activas (ruta, destino, lat, lng) para el grafo peatonal
+    @Query("SELECT rp.route.id, rp.route.toPlace.id, rp.latitude, rp.longitude FROM RoutePoint rp " +
+           "WHERE rp.route.isActive = true ORDER BY rp.route.id, rp.orderIndex")
+    List<Object[]> findActiveRouteCoordinates();
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -43,9 +44,27 @@ public interface RouteRatingRepository extends JpaRepository<RouteRating, UUID>
     @Query("SELECT COUNT(rr) FROM RouteRating rr WHERE rr.route = :route AND rr.rating = :rating")
     long countRatingsByValue(@Param("route") Route route, @Param("rating") Integer rating);
     
-    // Distribución de calificaciones
-    @Query("SELECT rr.rating, COUNT(rr) FROM RouteRating rr WHERE rr.route = :route GROUP BY rr.rating ORDER BY rr.rating")
-    List<Object[]> getRatingDistribution(@Param("route") Route route);
+    // Distribución de calificaciones: (estrellas, cantidad) leída del histograma de la ruta, sin GROUP BY
+    default List<Object[]> getRatingDistribution(Route route) {
+        List<Object[]> rows = findRatingHistogram(route.getId());
+        List<Object[]> distribution = new ArrayList<>();
+        if (rows.isEmpty()) {
+            return distribution;
+        }
+        
+        Object[] counts = rows.get(0);
+        for (int stars = 1; stars <= counts.length; stars++) {
+            Number count = (Number) counts[stars - 1];
+            if (count != null && count.longValue() > 0) {
+                distribution.add(new Object[] { stars, count.longValue() });
+            }
+        }
+        return distribution;
+    }
+    
+    @Query("SELECT r.ratingCount1, r.ratingCount2, r.ratingCount3, r.ratingCount4, r.ratingCount5 " +
+           "FROM Route r WHERE r.id = :routeId")
+    List<Object[]> findRatingHistogram(@Param("routeId") UUID routeId);
     
     // Calificaciones con comentarios
     @Query("SELECT rr FROM RouteRating rr WHERE rr.route = :route AND rr.comment IS NOT NULL AND LENGTH(rr.comment) > 0 ORDER BY rr.createdAt DESC")
@@ -5,15 +5,22 @@ import com.example.demo.entity.Route;
 import com.example.demo.entity.RouteDifficulty;
 import com.example.demo.entity.Place;
 import com.example.demo.entity.User;
+import com.example.demo.geo.BoundingBox;
+import com.example.demo.geo.GeoPoint;
+import com.example.demo.geo.GeoUtils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -26,6 +33,29 @@ public interface RouteRepository extends JpaRepository<Route, UUID> {
     
     List<Route> findByToPlaceIdAndIsActiveTrue(UUID placeId);
     
+    // Rutas activas a un destino con destino (y sus colecciones) y creador cargados, ya ordenadas
+    @Query("SELECT r FROM Route r " +
+           "JOIN FETCH r.toPlace p " +
+           "LEFT JOIN FETCH p.equipment " +
+           "LEFT JOIN FETCH p.accessibilityFeatures " +
+           "LEFT JOIN FETCH r.createdBy " +
+           "WHERE p.id = :placeId AND r.isActive = true " +
+           "ORDER BY r.averageRating DESC, r.timesUsed DESC")
+    List<Route> findActiveByDestinationWithDetails(@Param("placeId") UUID placeId);
+    
+    // Versión de la ruta para validar la geometría en caché sin cargar la entidad
+    @Query("SELECT r.updatedAt FROM Route r WHERE r.id = :routeId")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("routeId") UUID routeId);
+    
+    // Ruta con destino (y sus colecciones) y creador cargados
+    @Query("SELECT r FROM Route r " +
+           "JOIN FETCH r.toPlace p " +
+           "LEFT JOIN FETCH p.equipment " +
+           "LEFT JOIN FETCH p.accessibilityFeatures " +
+           "LEFT JOIN FETCH r.createdBy " +
+           "WHERE r.id = :routeId")
+    Optional<Route> findWithDetailsById(@Param("routeId") UUID routeId);
+    
     // Rutas por creador
     List<Route> findByCreatedBy(User createdBy);
     
@@ -46,27 +76,57 @@ public interface RouteRepository extends JpaRepository<Route, UUID> {
            "LOWER(r.fromDescription) LIKE LOWER(CONCAT('%', :query, '%')))")
     List<Route> searchActiveRoutes(@Param("query") String query);
     
-    // Rutas cercanas usando fórmula de Haversine
-    @Query(value = "SELECT *, " +
-           "(6371 * acos(cos(radians(:lat)) * cos(radians(from_latitude)) * " +
-           "cos(radians(from_longitude) - radians(:lng)) + " +
-           "sin(radians(:lat)) * sin(radians(from_latitude)))) AS distance " +
-           "FROM routes " +
-           "WHERE is_active = true AND " +
-           "(6371 * acos(cos(radians(:lat)) * cos(radians(from_latitude)) * " +
-           "cos(radians(from_longitude) - radians(:lng)) + " +
-           "sin(radians(:lat)) * sin(radians(from_latitude)))) <= :radiusKm " +
-           "ORDER BY distance", 
-           nativeQuery = true)
-    List<Route> findNearbyRoutes(@Param("lat") BigDecimal latitude, 
-                                @Param("lng") BigDecimal longitude, 
-                                @Param("radiusKm") BigDecimal radiusKm);
+    // Mejor ruta hacia un destino que parte cerca del usuario. El destino, el rectángulo y el radio
+    // se filtran en la base de datos, y el orden combina calificación, uso y distancia real:
+    // score = averageRating + 0.5 * ln(1 + timesUsed) - distanceWeight * distanciaKm
+    // La ganadora se carga después con su destino (y sus colecciones) y creador: un JOIN FETCH de
+    // colecciones junto con LIMIT obligaría a Hibernate a paginar en memoria
+    default Optional<Route> findBestNearbyRouteToDestination(UUID placeId, GeoPoint origin,
+                                                              double radiusKm, double distanceWeight) {
+        BoundingBox box = BoundingBox.around(origin.latitude(), origin.longitude(), radiusKm);
+        double radiusDegrees = radiusKm / GeoUtils.KM_PER_DEGREE;
+        return findBestRouteIdToDestinationWithinBounds(placeId,
+                origin.latitude(), origin.longitude(), Math.cos(Math.toRadians(origin.latitude())),
+                box.minLatitude(), box.maxLatitude(), box.minLongitude(), box.maxLongitude(),
+                radiusDegrees * radiusDegrees, GeoUtils.KM_PER_DEGREE, distanceWeight)
+                .flatMap(this::findWithDetailsById);
+    }
+    
+    // Distancia equirectangular en grados²: a escala de campus equivale a la distancia real
+    @Query("SELECT r.id FROM Route r " +
+           "WHERE r.toPlace.id = :placeId AND r.isActive = true " +
+           "AND r.fromLatitude BETWEEN :minLat AND :maxLat " +
+           "AND r.fromLongitude BETWEEN :minLng AND :maxLng " +
+           "AND ((r.fromLatitude - :lat) * (r.fromLatitude - :lat) + " +
+           "(r.fromLongitude - :lng) * :cosLat * (r.fromLongitude - :lng) * :cosLat) <= :maxDistanceSquared " +
+           "ORDER BY (r.averageRating + 0.5 * ln(1 + r.timesUsed) - :distanceWeight * :kmPerDegree * " +
+           "sqrt((r.fromLatitude - :lat) * (r.fromLatitude - :lat) + " +
+           "(r.fromLongitude - :lng) * :cosLat * (r.fromLongitude - :lng) * :cosLat)) DESC " +
+           "LIMIT 1")
+    Optional<UUID> findBestRouteIdToDestinationWithinBounds(@Param("placeId") UUID placeId,
+                                                            @Param("lat") double latitude,
+                                                            @Param("lng") double longitude,
+                                                            @Param("cosLat") double cosLatitude,
+                                                            @Param("minLat") double minLatitude,
+                                                            @Param("maxLat") double maxLatitude,
+                                                            @Param("minLng") double minLongitude,
+                                                            @Param("maxLng") double maxLongitude,
+                                                            @Param("maxDistanceSquared") double maxDistanceSquared,
+                                                            @Param("kmPerDegree") double kmPerDegree,
+                                                            @Param("distanceWeight") double distanceWeight);
     
     // Rutas más populares
     @Query("SELECT r FROM Route r WHERE r.isActive = true AND r.averageRating >= :minRating " +
            "ORDER BY r.averageRating DESC, r.timesUsed DESC")
     List<Route> findTopRatedRoutes(@Param("minRating") Double minRating);
     
+    // Destinos con rutas activas: (id del lugar, rutas activas, mejor calificación)
+    @Query("SELECT r.toPlace.id, COUNT(r), MAX(r.averageRating) FROM Route r " +
+           "WHERE r.isActive = true " +
+           "GROUP BY r.toPlace.id " +
+           "ORDER BY MAX(r.averageRating) DESC")
+    List<Object[]> findActiveDestinationStats();
+    
     // Estadísticas
     @Query("SELECT COUNT(r) FROM Route r WHERE r.isActive = true")
     long countActiveRoutes();
@@ -77,6 +137,56 @@ public interface RouteRepository extends JpaRepository<Route, UUID> {
     @Query("SELECT AVG(r.averageRating) FROM Route r WHERE r.isActive = true AND r.totalRatings > 0")
     Double getAverageRatingAllRoutes();
     
+    // Metros y minutos totales de las rutas activas (ritmo promedio de caminata en el campus)
+    @Query("SELECT SUM(r.totalDistance), SUM(r.estimatedTime) FROM Route r " +
+           "WHERE r.isActive = true AND r.totalDistance > 0 AND r.estimatedTime > 0")
+    List<Object[]> findActiveDistanceAndTimeTotals();
+    
+    // Contadores con escritura diferida (UsageCounterService): suma atómica sin leer la fila
+    @Modifying
+    @Transactional
+    @Query("UPDATE Route r SET r.timesUsed = r.timesUsed + :delta WHERE r.id IN :ids")
+    int incrementTimesUsed(@Param("ids") Collection<UUID> ids, @Param("delta") int delta);
+    
+    // Nueva calificación: suma, conteo, histograma y promedio en una sola sentencia, sin leer
+    // las calificaciones existentes. averageRating va primero porque MySQL evalúa las
+    // asignaciones en orden y las siguientes ya verían la suma y el conteo nuevos.
+    @Modifying
+    @Transactional
+    @Query("UPDATE Route r SET " +
+           "r.averageRating = round((coalesce(r.ratingSum, 0) + :rating) * 1.0 / (coalesce(r.totalRatings, 0) + 1), 2), " +
+           "r.ratingSum = coalesce(r.ratingSum, 0) + :rating, " +
+           "r.totalRatings = coalesce(r.totalRatings, 0) + 1, " +
+           "r.ratingCount1 = coalesce(r.ratingCount1, 0) + CASE WHEN :rating = 1 THEN 1 ELSE 0 END, " +
+           "r.ratingCount2 = coalesce(r.ratingCount2, 0) + CASE WHEN :rating = 2 THEN 1 ELSE 0 END, " +
+           "r.ratingCount3 = coalesce(r.ratingCount3, 0) + CASE WHEN :rating = 3 THEN 1 ELSE 0 END, " +
+           "r.ratingCount4 = coalesce(r.ratingCount4, 0) + CASE WHEN :rating = 4 THEN 1 ELSE 0 END, " +
+           "r.ratingCount5 = coalesce(r.ratingCount5, 0) + CASE WHEN :rating = 5 THEN 1 ELSE 0 END " +
+           "WHERE r.id = :routeId")
+    int applyRating(@Param("routeId") UUID routeId, @Param("rating") int rating);
+    
+    // Recalcula los agregados de calificación desde route_ratings (backfill y datos de ejemplo)
+    String RECALCULATE_RATINGS_SET = "UPDATE Route r SET " +
+           "r.ratingSum = coalesce((SELECT sum(rr.rating) FROM RouteRating rr WHERE rr.route = r), 0), " +
+           "r.totalRatings = (SELECT count(rr) FROM RouteRating rr WHERE rr.route = r), " +
+           "r.averageRating = coalesce((SELECT round(avg(rr.rating), 2) FROM RouteRating rr WHERE rr.route = r), 0.0), " +
+           "r.ratingCount1 = (SELECT count(rr) FROM RouteRating rr WHERE rr.route = r AND rr.rating = 1), " +
+           "r.ratingCount2 = (SELECT count(rr) FROM RouteRating rr WHERE rr.route = r AND rr.rating = 2), " +
+           "r.ratingCount3 = (SELECT count(rr) FROM RouteRating rr WHERE rr.route = r AND rr.rating = 3), " +
+           "r.ratingCount4 = (SELECT count(rr) FROM RouteRating rr WHERE rr.route = r AND rr.rating = 4), " +
+           "r.ratingCount5 = (SELECT count(rr) FROM RouteRating rr WHERE rr.route = r AND rr.rating = 5) ";
+    
+    @Modifying
+    @Transactional
+    @Query(RECALCULATE_RATINGS_SET)
+    int recalculateRatingAggregates();
+    
+    // Filas creadas antes de existir las columnas de agregados
+    @Modifying
+    @Transactional
+    @Query(RECALCULATE_RATINGS_SET + "WHERE r.ratingSum IS NULL")
+    int recalculateMissingRatingAggregates();
+    
     // Rutas que necesitan revisión (rating bajo)
     @Query("SELECT r FROM Route r WHERE r.isActive = true AND r.averageRating < :threshold AND r.totalRatings >= :minRatings")
     List<Route> findRoutesNeedingReview(@Param("threshold") Double threshold, @Param("minRatings") Integer minRatings);
@@ -0,0 +1,131 @@
+package com.example.demo.search;
+
+import com.example.demo.dto.place.PlaceSuggestionDTO;
+import com.example.demo.entity.Place;
+import com.example.demo.event.PlaceChangedEvent;
+import com.example.demo.repository.PlaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sugerencias de autocompletado para lugares. Un trie compacto sobre nombres, códigos
+ * de aula y edificios (sin tildes) resuelve cada pulsación sin consultar MySQL.
+ */
+@Component
+public class PlaceAutocompleteIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceAutocompleteIndex.class);
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    // Se reemplazan completos al reconstruir: los lectores nunca ven mapas a medio llenar
+    private volatile Map<UUID, PlaceSuggestionDTO> suggestions = new ConcurrentHashMap<>();
+    private volatile Map<UUID, String> roomCodes = new ConcurrentHashMap<>();
+
+    private volatile PrefixTrie<UUID> trie = new PrefixTrie<>();
+    private volatile boolean loaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public synchronized void rebuild() {
+        Map<UUID, PlaceSuggestionDTO> newSuggestions = new ConcurrentHashMap<>();
+        Map<UUID, String> newRoomCodes = new ConcurrentHashMap<>();
+
+        for (Object[] row : placeRepository.findAllSuggestionFields()) {
+            UUID id = (UUID) row[0];
+            newSuggestions.put(id, new PlaceSuggestionDTO(id, (String) row[1], (String) row[3]));
+            if (row[2] != null) {
+                newRoomCodes.put(id, (String) row[2]);
+            }
+        }
+
+        PrefixTrie<UUID> newTrie = buildTrie(newSuggestions, newRoomCodes);
+        suggestions = newSuggestions;
+        roomCodes = newRoomCodes;
+        trie = newTrie;
+        loaded = true;
+        logger.info("⌨️ Índice de autocompletado construido: {} lugares, {} claves", newSuggestions.size(), newTrie.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPlaceChanged(PlaceChangedEvent event) {
+        suggestions.remove(event.placeId());
+        roomCodes.remove(event.placeId());
+
+        if (!event.isDeleted()) {
+            Place place = event.place();
+            suggestions.put(place.getId(), PlaceSuggestionDTO.fromEntity(place));
+            if (place.getRoomCode() != null) {
+                roomCodes.put(place.getId(), place.getRoomCode());
+            }
+        }
+
+        // Reconstruir desde memoria es barato (cientos de lugares) y mantiene el trie inmutable
+        trie = buildTrie(suggestions, roomCodes);
+    }
+
+    public List<PlaceSuggestionDTO> suggest(String query, int limit) {
+        ensureLoaded();
+
+        String prefix = String.join(" ", TextNormalizer.tokenize(query));
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+
+        return trie.findByPrefix(prefix, limit).stream()
+                .map(suggestions::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private static PrefixTrie<UUID> buildTrie(Map<UUID, PlaceSuggestionDTO> suggestions, Map<UUID, String> roomCodes) {
+        PrefixTrie<UUID> newTrie = new PrefixTrie<>();
+
+        suggestions.values().forEach(suggestion -> {
+            UUID id = suggestion.getId();
+
+            // Nombre completo y cada palabra intermedia ("fisica" encuentra "Laboratorio de Física")
+            List<String> nameTokens = TextNormalizer.tokenize(suggestion.getName());
+            for (int i = 0; i < nameTokens.size(); i++) {
+                newTrie.insert(String.join(" ", nameTokens.subList(i, nameTokens.size())), id);
+            }
+
+            String roomCode = roomCodes.get(id);
+            if (roomCode != null) {
+                newTrie.insert(String.join(" ", TextNormalizer.tokenize(roomCode)), id);
+                newTrie.insert(TextNormalizer.compact(roomCode), id);
+            }
+
+            newTrie.insert(String.join(" ", TextNormalizer.tokenize(suggestion.getBuildingName())), id);
+        });
+
+        return newTrie;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Place;
+import com.example.demo.event.PlaceChangedEvent;
+import com.example.demo.repository.PlaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para la búsqueda de lugares. Normaliza tildes, acepta
+ * prefijos y errores de tipeo, y ordena los resultados por relevancia ponderando
+ * el campo donde coincide cada término (nombre, código de aula, edificio, etc.).
+ */
+@Component
+public class PlaceSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceSearchIndex.class);
+
+    // Peso de cada campo en la relevancia
+    private static final float NAME_WEIGHT = 5.0f;
+    private static final float ROOM_CODE_WEIGHT = 4.0f;
+    private static final float BUILDING_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 3.0f;
+    private static final float WHAT3WORDS_WEIGHT = 3.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    // Factor según el tipo de coincidencia del término
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.7f;
+    private static final float FUZZY_MATCH = 0.4f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    // término → (lugar → peso)
+    private final NavigableMap<String, Map<UUID, Float>> postings = new TreeMap<>();
+    // lugar → términos indexados (para actualizar de forma incremental)
+    private final Map<UUID, Set<String>> documentTerms = new HashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            // Leer dentro del lock: un PlaceChangedEvent que llegue mientras tanto espera y se
+            // aplica sobre el índice nuevo, en vez de perderse al limpiarlo
+            List<Place> places = placeRepository.findAll();
+            postings.clear();
+            documentTerms.clear();
+            places.forEach(this::index);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        logger.info("🔎 Índice de búsqueda de lugares construido: {} lugares, {} términos",
+                documentTerms.size(), postings.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            unindex(event.placeId());
+            if (!event.isDeleted()) {
+                index(event.place());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids de los lugares más relevantes para la consulta, de mayor a menor relevancia.
+     */
+    public List<UUID> search(String query, int limit) {
+        ensureLoaded();
+
+        Set<String> queryTokens = new LinkedHashSet<>(TextNormalizer.tokenize(query));
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<UUID, Float> scores = new HashMap<>();
+        Map<UUID, Integer> matchedTokens = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            for (String token : queryTokens) {
+                Map<UUID, Float> tokenScores = scoreToken(token);
+                tokenScores.forEach((placeId, score) -> {
+                    scores.merge(placeId, score, Float::sum);
+                    matchedTokens.merge(placeId, 1, Integer::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Se favorecen los lugares que cubren más términos de la consulta
+        int totalTokens = queryTokens.size();
+        PriorityQueue<Map.Entry<UUID, Float>> topK = new PriorityQueue<>(Map.Entry.comparingByValue());
+        for (Map.Entry<UUID, Float> entry : scores.entrySet()) {
+            float coverage = matchedTokens.get(entry.getKey()) / (float) totalTokens;
+            topK.offer(Map.entry(entry.getKey(), entry.getValue() * coverage));
+            if (topK.size() > limit) {
+                topK.poll();
+            }
+        }
+
+        List<Map.Entry<UUID, Float>> ranked = new ArrayList<>(topK);
+        ranked.sort(Map.Entry.<UUID, Float>comparingByValue(Comparator.reverseOrder()));
+        return ranked.stream().map(Map.Entry::getKey).toList();
+    }
+
+    /**
+     * Ids de todos los lugares que coinciden con la consulta, de mayor a menor relevancia.
+     * Lo usa la paginación por cursor, que no debe cortarse en un límite fijo.
+     */
+    public List<UUID> searchAll(String query) {
+        return search(query, Integer.MAX_VALUE);
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    private Map<UUID, Float> scoreToken(String token) {
+        Map<UUID, Float> tokenScores = new HashMap<>();
+
+        accumulate(postings.get(token), EXACT_MATCH, tokenScores);
+
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            for (Map.Entry<String, Map<UUID, Float>> entry :
+                    postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                // Un prefijo más largo respecto al término es una coincidencia más fuerte
+                float completeness = token.length() / (float) entry.getKey().length();
+                accumulate(entry.getValue(), PREFIX_MATCH * completeness, tokenScores);
+            }
+        }
+
+        // Tolerancia a errores de tipeo solo si no hubo coincidencia exacta ni por prefijo
+        if (tokenScores.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxDistance = token.length() >= 8 ? 2 : 1;
+            String first = token.substring(0, 1);
+            for (Map.Entry<String, Map<UUID, Float>> entry :
+                    postings.subMap(first, true, first + Character.MAX_VALUE, false).entrySet()) {
+                String term = entry.getKey();
+                if (Math.abs(term.length() - token.length()) <= maxDistance &&
+                        boundedEditDistance(token, term, maxDistance) <= maxDistance) {
+                    accumulate(entry.getValue(), FUZZY_MATCH, tokenScores);
+                }
+            }
+        }
+
+        return tokenScores;
+    }
+
+    private void accumulate(Map<UUID, Float> posting, float factor, Map<UUID, Float> tokenScores) {
+        if (posting == null) return;
+        posting.forEach((placeId, weight) -> tokenScores.merge(placeId, weight * factor, Math::max));
+    }
+
+    private void index(Place place) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, place.getName(), NAME_WEIGHT);
+        addField(terms, place.getRoomCode(), ROOM_CODE_WEIGHT);
+        addField(terms, place.getBuildingName(), BUILDING_WEIGHT);
+        addField(terms, place.getCategory(), CATEGORY_WEIGHT);
+        addField(terms, place.getWhat3words(), WHAT3WORDS_WEIGHT);
+        addField(terms, place.getDescription(), DESCRIPTION_WEIGHT);
+
+        // Códigos como "A-101" también se buscan juntos ("a101")
+        String compactRoomCode = TextNormalizer.compact(place.getRoomCode());
+        if (!compactRoomCode.isEmpty()) {
+            terms.merge(compactRoomCode, ROOM_CODE_WEIGHT, Math::max);
+        }
+
+        terms.forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(place.getId(), weight));
+        documentTerms.put(place.getId(), terms.keySet());
+    }
+
+    private void unindex(UUID placeId) {
+        Set<String> terms = documentTerms.remove(placeId);
+        if (terms == null) return;
+
+        for (String term : terms) {
+            Map<UUID, Float> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(placeId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> terms, String value, float weight) {
+        for (String token : TextNormalizer.tokenize(value)) {
+            terms.merge(token, weight, Float::sum);
+        }
+    }
+
+    // Distancia de Levenshtein con corte temprano al superar maxDistance
+    private static int boundedEditDistance(String a, String b, int maxDistance) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+}
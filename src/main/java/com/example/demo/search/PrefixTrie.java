@@ -0,0 +1,132 @@
+package com.example.demo.search;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Trie compacto (radix): cada arista guarda un fragmento de clave en lugar de un solo
+ * carácter, así la búsqueda por prefijo recorre pocos nodos. Se construye una vez y
+ * luego solo se lee; para actualizarlo se construye uno nuevo.
+ */
+public class PrefixTrie<V> {
+
+    private static final class Node<V> {
+        private String label;
+        private final Map<Character, Node<V>> children = new TreeMap<>();
+        private final List<V> values = new ArrayList<>(1);
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final Node<V> root = new Node<>("");
+    private int size = 0;
+
+    public void insert(String key, V value) {
+        if (key == null || key.isEmpty()) return;
+
+        Node<V> node = root;
+        int offset = 0;
+        while (offset < key.length()) {
+            char next = key.charAt(offset);
+            Node<V> child = node.children.get(next);
+
+            if (child == null) {
+                Node<V> leaf = new Node<>(key.substring(offset));
+                leaf.values.add(value);
+                node.children.put(next, leaf);
+                size++;
+                return;
+            }
+
+            int common = commonPrefixLength(child.label, key, offset);
+            if (common < child.label.length()) {
+                // Partir la arista en el punto donde la clave diverge
+                Node<V> split = new Node<V>(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(next, split);
+                child = split;
+            }
+
+            node = child;
+            offset += common;
+        }
+
+        if (!node.values.contains(value)) {
+            node.values.add(value);
+            size++;
+        }
+    }
+
+    /**
+     * Valores cuyas claves empiezan por el prefijo, en orden lexicográfico de clave
+     * y sin duplicados, hasta el límite indicado.
+     */
+    public List<V> findByPrefix(String prefix, int limit) {
+        if (prefix == null || prefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Node<V> node = root;
+        int offset = 0;
+        while (offset < prefix.length()) {
+            Node<V> child = node.children.get(prefix.charAt(offset));
+            if (child == null) {
+                return List.of();
+            }
+
+            int common = commonPrefixLength(child.label, prefix, offset);
+            if (offset + common == prefix.length()) {
+                // El prefijo termina dentro (o al final) de esta arista
+                node = child;
+                break;
+            }
+            if (common < child.label.length()) {
+                return List.of();
+            }
+
+            node = child;
+            offset += common;
+        }
+
+        Set<V> results = new LinkedHashSet<>();
+        collect(node, results, limit);
+        return new ArrayList<>(results);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private boolean collect(Node<V> node, Set<V> results, int limit) {
+        for (V value : node.values) {
+            results.add(value);
+            if (results.size() >= limit) {
+                return true;
+            }
+        }
+        for (Node<V> child : node.children.values()) {
+            if (collect(child, results, limit)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
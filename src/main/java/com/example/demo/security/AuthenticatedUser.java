@@ -0,0 +1,98 @@
+package com.example.demo.security;
+
+import com.example.demo.entity.User;
+import com.example.demo.entity.UserType;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Principal inmutable que el filtro JWT deja en el contexto de seguridad. Guarda solo lo
+ * que se necesita para autorizar y para referenciar al usuario sin volver a consultarlo,
+ * así se puede compartir entre solicitudes desde la caché de principales o armarse
+ * directamente con los claims de un access token.
+ */
+public final class AuthenticatedUser implements UserDetails {
+
+    private final UUID id;
+    private final String email;
+    private final UserType userType;
+    private final int tokenVersion;
+    private final boolean active;
+    private final List<GrantedAuthority> authorities;
+
+    private AuthenticatedUser(UUID id, String email, UserType userType, int tokenVersion, boolean active) {
+        this.id = id;
+        this.email = email;
+        this.userType = userType;
+        this.tokenVersion = tokenVersion;
+        this.active = active;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + userType.name()));
+    }
+
+    public static AuthenticatedUser fromEntity(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getUserType(),
+                user.getTokenVersion(), Boolean.TRUE.equals(user.getIsActive()));
+    }
+
+    /**
+     * Principal armado solo con los claims del access token, o null si al token le faltan
+     * (tokens emitidos antes de incluir id y rol). Un token vigente se emitió para un usuario activo.
+     */
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        String userId = claims.get(JwtUtils.USER_ID_CLAIM, String.class);
+        String role = claims.get(JwtUtils.ROLE_CLAIM, String.class);
+        if (userId == null || role == null) {
+            return null;
+        }
+
+        try {
+            return new AuthenticatedUser(UUID.fromString(userId), claims.getSubject(), UserType.valueOf(role),
+                    JwtUtils.getTokenVersion(claims), true);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public UserType getUserType() {
+        return userType;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    // El principal nunca se usa para verificar contraseñas
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return active;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,8 +9,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,26 +16,26 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
-    private final JwtUtils jwtUtils;
-    private final UserDetailsService userDetailsService;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final UserPrincipalCache userPrincipalCache;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserDetailsService userDetailsService) {
-        this.jwtUtils = jwtUtils;
-        this.userDetailsService = userDetailsService;
+    public JwtAuthenticationFilter(JwtTokenVerifier jwtTokenVerifier, UserPrincipalCache userPrincipalCache) {
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.userPrincipalCache = userPrincipalCache;
     }
 
-    // 🔓 Rutas públicas EXACTAS (SIN el prefijo de contexto /api)
-    private static final Set<String> PUBLIC_EXACT_PATHS = Set.of(
+    // 🔓 Rutas públicas (SIN el prefijo de contexto /api); {uuid} coincide con un UUID
+    private static final List<String> PUBLIC_PATHS = List.of(
         // Auth públicos
         "/auth/login",
         "/auth/register",
+        "/auth/refresh",
         "/auth/health",
         "/auth/validate-email",
         "/auth/validate-student-id",
@@ -44,17 +43,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         // Places - todas las lecturas son públicas
         "/places",
         "/places/search",
+        "/places/autocomplete",
         "/places/nearby",
         "/places/type",
         "/places/available",
         "/places/building",
         "/places/what3words",
+        "/places/{uuid}",
 
         // Routes - SOLO estas rutas específicas son públicas
         "/routes/destinations",
         "/routes/nearest",
+        "/routes/path",
+        "/routes/matrix",
         "/routes/health",
         "/routes/proposals/health",
+        "/routes/to/{uuid}",
+        "/routes/{uuid}/points",
+        "/routes/{uuid}/details",
 
         // Navigation & Users health
         "/navigation/health",
@@ -64,23 +70,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         "/health"
     );
 
-    // 🔓 Patrones de rutas públicas específicas
-    private static final List<String> PUBLIC_PATH_PATTERNS = List.of(
-        // Rutas de lugares específicos (GET) - formato UUID
-        "^/places/[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}$",
-        
-        // Rutas públicas específicas de routes
-        "^/routes/to/[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}$",
-        "^/routes/[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}/points$",
-        "^/routes/[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}/details$"
+    // 🔐 Rutas EXPLÍCITAMENTE PROTEGIDAS (requieren JWT aunque una pública coincida)
+    private static final List<String> PROTECTED_PATHS = List.of(
+        "/routes/{uuid}/rating",
+        "/routes/{uuid}/my-rating",
+        "/navigation/{uuid}/progress"
     );
 
-    // 🔐 Patrones de rutas EXPLÍCITAMENTE PROTEGIDAS (requieren JWT)
-    private static final List<String> PROTECTED_PATH_PATTERNS = List.of(
-        // Rutas que requieren autenticación
-        "^/routes/[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}/rating$",
-        "^/routes/[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}/my-rating$"
-    );
+    // Se compila una sola vez; clasificar una solicitud no crea objetos ni evalúa regex
+    private static final PathClassifier PATH_CLASSIFIER = new PathClassifier(PUBLIC_PATHS, PROTECTED_PATHS);
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) throws ServletException {
@@ -90,41 +88,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return true;
         }
 
-        // Obtener la ruta correctamente
         String path = request.getRequestURI();
         String contextPath = request.getContextPath();
-        
-        // Remover context path si existe (normalmente /api)
-        if (StringUtils.hasText(contextPath) && path.startsWith(contextPath)) {
-            path = path.substring(contextPath.length());
-        }
-        
-        final String normalizedPath = path;
-        
-        // PRIMERO: Verificar si es una ruta EXPLÍCITAMENTE PROTEGIDA
-        for (String pattern : PROTECTED_PATH_PATTERNS) {
-            if (normalizedPath.matches(pattern)) {
-                logger.debug("🔐 JWT required for protected path: {}", normalizedPath);
-                return false; // NO saltar el filtro - requiere JWT
-            }
-        }
-        
-        // SEGUNDO: Verificar rutas públicas exactas
-        if (PUBLIC_EXACT_PATHS.contains(normalizedPath)) {
-            logger.debug("⏭️ Skipping JWT filter for public path: {}", normalizedPath);
+
+        // Saltar el context path si existe (normalmente /api) sin recortar el String
+        int offset = StringUtils.hasText(contextPath) && path.startsWith(contextPath) ? contextPath.length() : 0;
+
+        if (PATH_CLASSIFIER.isPublic(path, offset)) {
+            logger.debug("⏭️ Skipping JWT filter for public path: {}", path);
             return true; // Saltar el filtro - es pública
         }
-        
-        // TERCERO: Verificar patrones de rutas públicas
-        for (String pattern : PUBLIC_PATH_PATTERNS) {
-            if (normalizedPath.matches(pattern)) {
-                logger.debug("⏭️ Skipping JWT filter for public path: {}", normalizedPath);
-                return true; // Saltar el filtro - es pública
-            }
-        }
-        
+
         // Por defecto, todas las demás rutas requieren autenticación
-        logger.debug("🔐 JWT required for protected path: {}", normalizedPath);
+        logger.debug("🔐 JWT required for protected path: {}", path);
         return false; // NO saltar el filtro - requiere JWT
     }
 
@@ -141,16 +117,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             // Si ya hay autenticación establecida, continúa
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
                 String jwt = parseJwt(request);
-                if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                    String username = jwtUtils.getUserNameFromJwtToken(jwt);
+                // Una sola verificación: firma y expiración, devolviendo los claims
+                Claims claims = jwt != null ? jwtTokenVerifier.verify(jwt) : null;
+                // Un refresh token no autoriza solicitudes: solo sirve en /auth/refresh
+                if (claims != null && JwtUtils.isAccessToken(claims)) {
+                    String username = claims.getSubject();
 
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    // Sale de los claims; solo consulta la base de datos si la versión quedó atrás
+                    AuthenticatedUser principal = userPrincipalCache.resolve(claims);
 
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
-                                    userDetails,
+                                    principal,
                                     null,
-                                    userDetails.getAuthorities()
+                                    principal.getAuthorities()
                             );
 
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -0,0 +1,80 @@
+package com.example.demo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.UnsupportedJwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+/**
+ * Verificación de JWT en un solo paso: valida firma y expiración una vez y devuelve los
+ * claims. Los tokens ya verificados se recuerdan (por su texto completo, firma incluida)
+ * hasta su propia expiración, así las solicitudes repetidas del mismo cliente no vuelven
+ * a calcular el HMAC. La revocación no depende de esta caché: la versión del token se
+ * sigue comprobando contra el usuario en UserPrincipalCache.
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenVerifier.class);
+
+    private final JwtUtils jwtUtils;
+
+    private final Cache<String, Claims> verified;
+
+    public JwtTokenVerifier(JwtUtils jwtUtils,
+                            @Value("${jwt.verified-cache.max-size:10000}") long maxSize) {
+        this.jwtUtils = jwtUtils;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.creating((String token, Claims claims) -> untilExpiration(claims)))
+                .build();
+    }
+
+    /**
+     * Claims del token si es válido, o null si es inválido o expiró.
+     */
+    public Claims verify(String token) {
+        Claims cached = verified.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            Claims claims = jwtUtils.parseClaims(token);
+            // Sin expiración no hay hasta cuándo recordarlo
+            if (claims.getExpiration() != null) {
+                verified.put(token, claims);
+            }
+            return claims;
+        } catch (MalformedJwtException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            logger.error("JWT token is expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.error("JWT claims string is empty: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.error("JWT validation error: {}", e.getMessage());
+        }
+
+        return null;
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private static Duration untilExpiration(Claims claims) {
+        long millis = claims.getExpiration().getTime() - new Date().getTime();
+        return Duration.ofMillis(Math.max(0, millis));
+    }
+}
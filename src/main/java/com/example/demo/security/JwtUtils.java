@@ -1,13 +1,12 @@
 package com.example.demo.security;
  
 
+import com.example.demo.entity.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -18,51 +17,108 @@ public class JwtUtils {
     
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
     
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    // Claims propios: versión de tokens del usuario (User.tokenVersion), id, rol y tipo de token
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TOKEN_TYPE_CLAIM = "typ";
     
-    @Value("${jwt.expiration}")
-    private long jwtExpirationMs;
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    private final long accessExpirationMs;
+    private final long refreshExpirationMs;
+    
+    // La clave y el parser son inmutables y seguros entre hilos: se construyen una sola vez
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.access-expiration}") long accessExpirationMs,
+                    @Value("${jwt.refresh-expiration}") long refreshExpirationMs) {
+        this.accessExpirationMs = accessExpirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
     
-    public String generateJwtToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        
+    /**
+     * Access token de vida corta: lleva id, rol y versión para autorizar sin consultar la base de datos.
+     */
+    public String generateAccessToken(User user) {
         return Jwts.builder()
-                .subject(userPrincipal.getUsername())
+                .subject(user.getEmail())
+                .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN)
+                .claim(USER_ID_CLAIM, user.getId().toString())
+                .claim(ROLE_CLAIM, user.getUserType().name())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                 .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .expiration(new Date((new Date()).getTime() + accessExpirationMs))
+                .signWith(signingKey)
                 .compact();
     }
     
-    public String generateTokenFromUsername(String username) {
+    /**
+     * Refresh token de vida larga: solo sirve para pedir un par nuevo en /auth/refresh.
+     */
+    public String generateRefreshToken(User user) {
         return Jwts.builder()
-                .subject(username)
+                .subject(user.getEmail())
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN)
+                .claim(USER_ID_CLAIM, user.getId().toString())
+                .claim(TOKEN_VERSION_CLAIM, user.getTokenVersion())
                 .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .expiration(new Date((new Date()).getTime() + refreshExpirationMs))
+                .signWith(signingKey)
                 .compact();
     }
     
+    /**
+     * Duración de los access tokens, en segundos (el "expiresIn" de la respuesta de login).
+     */
+    public long getAccessExpirationSeconds() {
+        return accessExpirationMs / 1000;
+    }
+    
+    /**
+     * Verifica la firma y la expiración del token y devuelve sus claims.
+     *
+     * @throws JwtException             si el token es inválido o expiró
+     * @throws IllegalArgumentException si el token está vacío
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+    
+    /**
+     * Versión de tokens con la que se emitió el JWT; los emitidos antes de existir el claim son versión 0.
+     */
+    public static int getTokenVersion(Claims claims) {
+        Integer version = claims.get(TOKEN_VERSION_CLAIM, Integer.class);
+        return version != null ? version : 0;
+    }
+    
+    /**
+     * Tokens emitidos antes de existir el claim de tipo se tratan como access tokens.
+     */
+    public static boolean isAccessToken(Claims claims) {
+        String type = claims.get(TOKEN_TYPE_CLAIM, String.class);
+        return type == null || ACCESS_TOKEN.equals(type);
+    }
+    
+    public static boolean isRefreshToken(Claims claims) {
+        return REFRESH_TOKEN.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+    
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
+        return parseClaims(token).getSubject();
     }
     
     public boolean validateJwtToken(String authToken) {
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
+            parseClaims(authToken);
             return true;
         } catch (MalformedJwtException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
@@ -80,12 +136,7 @@ public class JwtUtils {
     }
     
     public Date getExpirationDateFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getExpiration();
+        return parseClaims(token).getExpiration();
     }
     
     public boolean isTokenExpired(String token) {
@@ -0,0 +1,71 @@
+package com.example.demo.security;
+
+import com.example.demo.exception.TooManyRequestsException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool acotado para las operaciones que calculan BCrypt (login y registro). Así una ola de
+ * logins ocupa a lo sumo estos hilos y esta cola, y no los hilos de Tomcat que atienden
+ * las lecturas. Con la cola llena la tarea se rechaza al instante con TooManyRequestsException
+ * (429 + Retry-After) en vez de esperar.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(@Value("${security.password-hashing.threads:0}") int threads,
+                                   @Value("${security.password-hashing.queue-capacity:100}") int queueCapacity,
+                                   @Value("${security.password-hashing.retry-after-seconds:2}") long retryAfterSeconds) {
+        // BCrypt es puro CPU: por defecto un hilo por núcleo
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        logger.info("🔐 Pool de hashing de contraseñas: {} hilos, cola de {}", poolSize, queueCapacity);
+    }
+
+    /**
+     * Ejecuta la tarea en el pool.
+     *
+     * @throws TooManyRequestsException si el pool y su cola están llenos
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            logger.warn("⚠️ Pool de hashing saturado ({} en cola), solicitud rechazada", executor.getQueue().size());
+            throw new TooManyRequestsException("Demasiadas solicitudes de autenticación, intenta de nuevo en unos segundos",
+                    retryAfterSeconds);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
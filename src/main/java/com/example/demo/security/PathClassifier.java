@@ -0,0 +1,135 @@
+package com.example.demo.security;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabla de rutas públicas y protegidas compilada una sola vez en un trie por segmentos.
+ * Las plantillas usan segmentos literales y el comodín {@value #UUID_SEGMENT}; una ruta
+ * que no coincide con ninguna plantilla se considera protegida. Si una plantilla aparece
+ * como pública y como protegida, gana la protegida.
+ * Clasificar una ruta solo compara caracteres sobre el String original: no crea
+ * substrings, expresiones regulares ni otros objetos, así que no genera basura por solicitud.
+ */
+public final class PathClassifier {
+
+    public static final String UUID_SEGMENT = "{uuid}";
+
+    private static final int UUID_LENGTH = 36;
+
+    private final Node root = new Node();
+
+    public PathClassifier(List<String> publicTemplates, List<String> protectedTemplates) {
+        for (String template : publicTemplates) {
+            add(template, false);
+        }
+        for (String template : protectedTemplates) {
+            add(template, true);
+        }
+    }
+
+    /**
+     * Indica si la ruta es pública (no requiere JWT).
+     *
+     * @param path   URI de la solicitud
+     * @param offset índice donde empieza la ruta sin el context path (p. ej. después de /api)
+     */
+    public boolean isPublic(String path, int offset) {
+        int length = path.length();
+        if (offset >= length || path.charAt(offset) != '/') {
+            return false;
+        }
+
+        Node node = root;
+        int start = offset + 1;
+        while (true) {
+            int end = path.indexOf('/', start);
+            if (end < 0) end = length;
+
+            node = node.child(path, start, end);
+            if (node == null) {
+                return false;
+            }
+            if (end == length) {
+                return node.isPublic;
+            }
+            start = end + 1;
+        }
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private void add(String template, boolean isProtected) {
+        if (!template.startsWith("/")) {
+            throw new IllegalArgumentException("La plantilla debe empezar con '/': " + template);
+        }
+
+        Node node = root;
+        for (String segment : template.substring(1).split("/", -1)) {
+            node = node.getOrAdd(segment);
+        }
+        if (isProtected) {
+            node.isProtected = true;
+            node.isPublic = false;
+        } else if (!node.isProtected) {
+            node.isPublic = true;
+        }
+    }
+
+    private static final class Node {
+        // Pocos hijos por nodo: un recorrido lineal es más barato que un mapa y no necesita substring
+        String[] literals = new String[0];
+        Node[] literalChildren = new Node[0];
+        Node uuidChild;
+        boolean isPublic;
+        boolean isProtected;
+
+        Node getOrAdd(String segment) {
+            if (UUID_SEGMENT.equals(segment)) {
+                if (uuidChild == null) uuidChild = new Node();
+                return uuidChild;
+            }
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(segment)) return literalChildren[i];
+            }
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+            literals[literals.length - 1] = segment;
+            return literalChildren[literalChildren.length - 1] = new Node();
+        }
+
+        Node child(String path, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                    return literalChildren[i];
+                }
+            }
+            // Los literales tienen prioridad sobre el comodín (p. ej. /routes/path frente a /routes/{uuid})
+            if (uuidChild != null && isUuid(path, start, end)) {
+                return uuidChild;
+            }
+            return null;
+        }
+    }
+
+    private static boolean isUuid(String path, int start, int end) {
+        if (end - start != UUID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = path.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') return false;
+            } else if (!isHexDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isHexDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+}
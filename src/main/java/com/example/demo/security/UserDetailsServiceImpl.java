@@ -2,15 +2,20 @@ package com.example.demo.security;
 
 import com.example.demo.entity.User;
 import com.example.demo.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
     
     @Autowired
     private UserRepository userRepository;
@@ -23,4 +28,20 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         
         return user;
     }
+    
+    /**
+     * Lo llama DaoAuthenticationProvider después de un login correcto cuando el hash guardado
+     * usa un factor de trabajo menor al configurado; recibe la contraseña ya re-hasheada.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + userDetails.getUsername()));
+        
+        user.setPassword(newPassword);
+        logger.info("🔐 Contraseña re-hasheada con el factor de trabajo actual para: {}", user.getEmail());
+        
+        return userRepository.save(user);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.example.demo.security;
+
+import com.example.demo.event.UserChangedEvent;
+import com.example.demo.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Resolución de principales autenticados. Un access token con id, rol y versión se
+ * convierte en principal sin tocar la base de datos; solo se consulta al usuario cuando
+ * el token no trae esos claims o su versión quedó atrás porque UserChangedEvent avisó
+ * de una promoción o desactivación. En ese caso un token con versión anterior a la del
+ * usuario se rechaza (revocado). Esas consultas se cachean poco tiempo por sujeto y
+ * versión del token.
+ * Las versiones cambiadas solo se recuerdan en la memoria de esta instancia: después de
+ * un reinicio, o en otra instancia, un access token revocado se sigue aceptando por sus
+ * claims hasta que expira (jwt.access-expiration, 15 minutos). Es una ventana aceptada;
+ * el refresh token sí se compara siempre con users.token_version, así que no se puede
+ * renovar.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPrincipalCache.class);
+
+    private record Key(String subject, int tokenVersion) {}
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Cache<Key, AuthenticatedUser> principals;
+
+    // Última versión conocida de los usuarios que cambiaron; basta recordarla mientras
+    // pueda seguir vigente un access token emitido antes del cambio
+    private final Cache<String, Integer> changedVersions;
+
+    public UserPrincipalCache(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${security.principal-cache.ttl:PT1M}") Duration ttl,
+                              @Value("${jwt.access-expiration}") long accessExpirationMs) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.changedVersions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(accessExpirationMs))
+                .build();
+    }
+
+    /**
+     * Principal de un access token ya verificado.
+     *
+     * @throws UsernameNotFoundException si hay que consultar al usuario y no existe
+     * @throws DisabledException         si hay que consultar al usuario y está inactivo o el token fue revocado
+     */
+    public AuthenticatedUser resolve(Claims claims) {
+        String subject = claims.getSubject();
+        int tokenVersion = JwtUtils.getTokenVersion(claims);
+
+        Integer currentVersion = changedVersions.getIfPresent(subject);
+        if (currentVersion == null || tokenVersion >= currentVersion) {
+            AuthenticatedUser fromClaims = AuthenticatedUser.fromClaims(claims);
+            if (fromClaims != null) {
+                return fromClaims;
+            }
+        }
+
+        // Token sin claims de usuario o con versión desactualizada: se lee el estado actual
+        return get(subject, tokenVersion);
+    }
+
+    /**
+     * Principal del sujeto de un token, leído de la base de datos si no está en caché.
+     *
+     * @throws UsernameNotFoundException si el usuario no existe
+     * @throws DisabledException         si el usuario está inactivo o el token es de una versión anterior
+     */
+    public AuthenticatedUser get(String subject, int tokenVersion) {
+        return principals.get(new Key(subject, tokenVersion), this::load);
+    }
+
+    public void evict(String subject) {
+        principals.asMap().keySet().removeIf(key -> key.subject().equals(subject));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        changedVersions.put(event.email(), event.tokenVersion());
+        // Una carga en curso que leyó el estado anterior puede volver a entrar; el TTL la acota
+        evict(event.email());
+        logger.debug("🔄 Principal de {} desactualizado (versión {})", event.email(), event.tokenVersion());
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private AuthenticatedUser load(Key key) {
+        AuthenticatedUser principal = userRepository.findByEmail(key.subject())
+                .map(AuthenticatedUser::fromEntity)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado con email: " + key.subject()));
+
+        // No se cachean rechazos: al reactivar al usuario su siguiente solicitud vuelve a consultar
+        if (!principal.isEnabled()) {
+            throw new DisabledException("Usuario inactivo: " + key.subject());
+        }
+        if (key.tokenVersion() < principal.getTokenVersion()) {
+            throw new DisabledException("Token revocado para: " + key.subject());
+        }
+        return principal;
+    }
+}
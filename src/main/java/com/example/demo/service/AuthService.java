@@ -3,13 +3,17 @@ package com.example.demo.service;
 
 import com.example.demo.dto.auth.AuthResponse;
 import com.example.demo.dto.auth.LoginRequest;
+import com.example.demo.dto.auth.RefreshTokenRequest;
 import com.example.demo.dto.auth.RegisterRequest;
 import com.example.demo.dto.user.UserDTO;
 import com.example.demo.entity.User;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.security.AuthenticatedUser;
+import com.example.demo.security.JwtTokenVerifier;
 import com.example.demo.security.JwtUtils;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,6 +26,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Service
 @Transactional
@@ -41,21 +46,21 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private JwtTokenVerifier jwtTokenVerifier;
+
     public AuthResponse login(LoginRequest loginRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.getEmail(), loginRequest.getPassword())
             );
 
-            SecurityContextHolder.getContext().setAuthentication(authentication);
-            String jwt = jwtUtils.generateJwtToken(authentication);
-
+            // Corre en el pool de hashing: no se toca el SecurityContext de ese hilo (la API es stateless)
             User user = (User) authentication.getPrincipal();
-            UserDTO userDTO = UserDTO.fromEntity(user);
 
             logger.info("Usuario {} ha iniciado sesión exitosamente", user.getEmail());
 
-            return new AuthResponse(jwt, userDTO);
+            return createAuthResponse(user);
 
         } catch (Exception e) {
             logger.error("Error en login para email {}: {}", loginRequest.getEmail(), e.getMessage());
@@ -94,14 +99,10 @@ public class AuthService {
 
             User savedUser = userRepository.save(user);
 
-            // Generar token JWT
-            String jwt = jwtUtils.generateTokenFromUsername(savedUser.getEmail());
-
-            UserDTO userDTO = UserDTO.fromEntity(savedUser);
-
             logger.info("Nuevo usuario registrado: {}", savedUser.getEmail());
 
-            return new AuthResponse(jwt, userDTO);
+            // Generar tokens JWT
+            return createAuthResponse(savedUser);
 
         } catch (Exception e) {
             logger.error("Error en registro para email {}: {}", registerRequest.getEmail(), e.getMessage());
@@ -109,32 +110,74 @@ public class AuthService {
         }
     }
 
-    public UserDTO getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new BadRequestException("No hay usuario autenticado");
+    /**
+     * POST /api/auth/refresh - Emitir un par nuevo de tokens a partir de un refresh token.
+     * Los claims del nuevo access token salen del estado actual del usuario (rol y versión).
+     * Un refresh token emitido antes de subir users.token_version queda revocado.
+     */
+    @Transactional(readOnly = true)
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        Claims claims = jwtTokenVerifier.verify(request.getRefreshToken());
+        if (claims == null || !JwtUtils.isRefreshToken(claims)) {
+            throw new BadRequestException("Refresh token inválido o expirado");
+        }
+
+        UUID userId;
+        try {
+            userId = UUID.fromString(claims.get(JwtUtils.USER_ID_CLAIM, String.class));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new BadRequestException("Refresh token inválido o expirado");
+        }
+
+        User user = userRepository.findById(userId)
+                .filter(u -> Boolean.TRUE.equals(u.getIsActive()))
+                .orElseThrow(() -> new BadRequestException("Refresh token inválido o expirado"));
+
+        if (JwtUtils.getTokenVersion(claims) < user.getTokenVersion()) {
+            logger.warn("🚫 Refresh token revocado para usuario: {}", user.getEmail());
+            throw new BadRequestException("Refresh token revocado, inicia sesión de nuevo");
         }
 
-        String email = authentication.getName();
-        User user = userRepository.findByEmail(email)
+        logger.info("🔄 Tokens renovados para usuario: {}", user.getEmail());
+        return createAuthResponse(user);
+    }
+
+    public UserDTO getCurrentUser() {
+        AuthenticatedUser principal = getCurrentPrincipal();
+        User user = userRepository.findById(principal.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
 
         return UserDTO.fromEntity(user);
     }
 
-    public User getCurrentUserEntity() {
+    /**
+     * Principal del usuario autenticado, tal como lo dejó el filtro JWT (sin consultar la base de datos).
+     */
+    public AuthenticatedUser getCurrentPrincipal() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         
         if (authentication == null || !authentication.isAuthenticated()) {
             throw new BadRequestException("No hay usuario autenticado");
         }
 
-        String email = authentication.getName();
-        return userRepository.findByEmail(email)
+        if (authentication.getPrincipal() instanceof AuthenticatedUser principal) {
+            return principal;
+        }
+
+        // Autenticación establecida por otra vía (p. ej. el login): se resuelve por email
+        return userRepository.findByEmail(authentication.getName())
+                .map(AuthenticatedUser::fromEntity)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
     }
 
+    /**
+     * Referencia al usuario autenticado. Es un proxy perezoso: asignarlo a una relación o leer
+     * su id no consulta la base de datos; solo se carga si se leen o modifican otros campos.
+     */
+    public User getCurrentUserEntity() {
+        return userRepository.getReferenceById(getCurrentPrincipal().getId());
+    }
+
     public boolean isEmailAvailable(String email) {
         return !userRepository.existsByEmail(email.toLowerCase().trim());
     }
@@ -164,4 +207,14 @@ public class AuthService {
             throw new BadRequestException("El nombre completo es obligatorio");
         }
     }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private AuthResponse createAuthResponse(User user) {
+        return new AuthResponse(
+                jwtUtils.generateAccessToken(user),
+                jwtUtils.generateRefreshToken(user),
+                jwtUtils.getAccessExpirationSeconds(),
+                UserDTO.fromEntity(user));
+    }
 }
\ No newline at end of file
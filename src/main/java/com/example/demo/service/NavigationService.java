@@ -2,16 +2,24 @@
 package com.example.demo.service;
 
 import com.example.demo.dto.navigation.*;
+import com.example.demo.dto.route.RouteInstructionDTO;
 import com.example.demo.entity.*;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.geo.GeoUtils;
+import com.example.demo.geo.RouteGeometry;
+import com.example.demo.geo.RouteGeometryCache;
+import com.example.demo.geo.RouteSegmentIndex;
 import com.example.demo.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -34,6 +42,15 @@ public class NavigationService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private RouteGeometryCache routeGeometryCache;
+
+    @Autowired
+    private UsageCounterService usageCounterService;
+
+    @Value("${navigation.off-route-threshold-meters:25}")
+    private double offRouteThresholdMeters;
+
     /**
      * POST /api/navigation/start - Registrar inicio de navegación
      */
@@ -43,7 +60,7 @@ public class NavigationService {
         User currentUser = authService.getCurrentUserEntity();
         Place destination = placeService.getPlaceEntityById(request.getToPlaceId());
         
-        validateCoordinates(request.getFromLatitude(), request.getFromLongitude());
+        GeoUtils.validateCoordinates(request.getFromLatitude(), request.getFromLongitude());
 
         NavigationHistory navigation = new NavigationHistory();
         navigation.setUser(currentUser);
@@ -102,6 +119,11 @@ public class NavigationService {
 
         NavigationHistory completedNavigation = navigationHistoryRepository.save(navigation);
         
+        // El uso de la ruta se acumula en memoria y se vuelca en lote (sin bloquear la fila de la ruta)
+        if (navigation.getRouteUsed() != null) {
+            usageCounterService.recordRouteUsage(navigation.getRouteUsed().getId());
+        }
+        
         // Agregar puntos de contribución por completar navegación
         currentUser.addContributionPoints(2); // 2 puntos por navegación completada
         
@@ -109,6 +131,66 @@ public class NavigationService {
         return NavigationHistoryDTO.fromEntity(completedNavigation);
     }
 
+    /**
+     * POST /api/navigation/{navigationId}/progress - Ajustar la posición actual a la ruta de la navegación
+     */
+    @Transactional(readOnly = true)
+    public NavigationProgressDTO updateProgress(UUID navigationId, NavigationProgressRequest request) {
+        logger.debug("📡 Progreso de navegación {}: {},{}", navigationId, request.getLatitude(), request.getLongitude());
+        
+        GeoUtils.validateCoordinates(request.getLatitude(), request.getLongitude());
+        
+        User currentUser = authService.getCurrentUserEntity();
+        NavigationHistory navigation = navigationHistoryRepository.findById(navigationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Navegación", "id", navigationId));
+        
+        // user y routeUsed son LAZY: leer su id no dispara otra consulta
+        if (!navigation.getUser().getId().equals(currentUser.getId())) {
+            throw new BadRequestException("No puedes consultar la navegación de otro usuario");
+        }
+        
+        if (navigation.getNavigationCompletedAt() != null) {
+            throw new BadRequestException("Esta navegación ya fue completada");
+        }
+        
+        if (navigation.getRouteUsed() == null) {
+            throw new BadRequestException("La navegación no tiene una ruta asociada");
+        }
+
+        UUID routeId = navigation.getRouteUsed().getId();
+        RouteGeometry geometry = routeGeometryCache.get(routeId);
+        if (geometry.segments() == null) {
+            throw new BadRequestException("La ruta no tiene puntos");
+        }
+
+        RouteSegmentIndex segments = geometry.segments();
+        RouteSegmentIndex.Snap snap = segments.snap(
+                request.getLatitude().doubleValue(), request.getLongitude().doubleValue());
+
+        double total = segments.totalMeters();
+        double remaining = Math.max(0, total - snap.traveledMeters());
+
+        NavigationProgressDTO progress = new NavigationProgressDTO();
+        progress.setNavigationId(navigationId);
+        progress.setRouteId(routeId);
+        progress.setSegmentIndex(snap.segmentIndex());
+        progress.setSnappedLatitude(toCoordinate(snap.latitude()));
+        progress.setSnappedLongitude(toCoordinate(snap.longitude()));
+        progress.setDistanceFromRoute(roundMeters(snap.distanceMeters()));
+        progress.setOffRoute(snap.distanceMeters() > offRouteThresholdMeters);
+        progress.setDistanceTraveled(roundMeters(snap.traveledMeters()));
+        progress.setDistanceRemaining(roundMeters(remaining));
+        progress.setProgressPercentage(total > 0 ? Math.round(snap.traveledMeters() / total * 1000) / 10.0 : 100.0);
+
+        RouteInstructionDTO next = findNextInstruction(geometry.compact().getInstructions(), snap.segmentIndex());
+        if (next != null) {
+            progress.setNextInstruction(next);
+            progress.setDistanceToNextInstruction(
+                    roundMeters(Math.max(0, segments.cumulativeMeters(next.getIndex()) - snap.traveledMeters())));
+        }
+        return progress;
+    }
+
     /**
      * GET /api/navigation/history - Obtener historial de navegación del usuario
      */
@@ -125,19 +207,30 @@ public class NavigationService {
 
     // 🔧 MÉTODOS AUXILIARES PRIVADOS
 
-    private void validateCoordinates(java.math.BigDecimal latitude, java.math.BigDecimal longitude) {
-        if (latitude == null || longitude == null) {
-            throw new BadRequestException("Latitud y longitud son obligatorias");
+    /**
+     * Primera instrucción por delante del segmento actual (el segmento i termina en el punto i + 1).
+     * Las instrucciones vienen ordenadas por índice, así que basta una búsqueda binaria.
+     */
+    static RouteInstructionDTO findNextInstruction(List<RouteInstructionDTO> instructions, int segmentIndex) {
+        int low = 0;
+        int high = instructions.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (instructions.get(mid).getIndex() <= segmentIndex) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
         }
+        return low < instructions.size() ? instructions.get(low) : null;
+    }
 
-        if (latitude.compareTo(new java.math.BigDecimal("-90")) < 0 || 
-            latitude.compareTo(new java.math.BigDecimal("90")) > 0) {
-            throw new BadRequestException("Latitud debe estar entre -90 y 90");
-        }
+    private BigDecimal toCoordinate(double value) {
+        return BigDecimal.valueOf(value).setScale(8, RoundingMode.HALF_UP);
+    }
 
-        if (longitude.compareTo(new java.math.BigDecimal("-180")) < 0 || 
-            longitude.compareTo(new java.math.BigDecimal("180")) > 0) {
-            throw new BadRequestException("Longitud debe estar entre -180 y 180");
-        }
+    private double roundMeters(double meters) {
+        return Math.round(meters * 10) / 10.0;
     }
+
 }
\ No newline at end of file
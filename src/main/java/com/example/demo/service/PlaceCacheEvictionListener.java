@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.config.CacheConfig;
+import com.example.demo.event.PlaceChangedEvent;
+import com.example.demo.event.PlaceChangedEvent.CatalogKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Invalida solo las entradas de caché afectadas por un cambio de lugar: el propio lugar,
+ * el listado completo y los listados por tipo, disponibilidad y edificio antes y después del cambio.
+ */
+@Component
+public class PlaceCacheEvictionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(PlaceCacheEvictionListener.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        evict(CacheConfig.PLACES_BY_ID, event.placeId());
+        clear(CacheConfig.PLACES_ALL);
+
+        if (event.previous() != null) {
+            evictCatalogKeys(event.previous());
+        }
+        if (!event.isDeleted()) {
+            evictCatalogKeys(CatalogKeys.of(event.place()));
+        }
+
+        logger.debug("🧹 Caché de lugares invalidada para {}", event.placeId());
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private void evictCatalogKeys(CatalogKeys keys) {
+        if (keys.placeType() != null) {
+            evict(CacheConfig.PLACES_BY_TYPE, keys.placeType().name());
+        }
+        if (keys.isAvailable() != null) {
+            evict(CacheConfig.PLACES_BY_AVAILABILITY, keys.isAvailable());
+        }
+        if (keys.buildingName() != null) {
+            evict(CacheConfig.PLACES_BY_BUILDING, CacheConfig.buildingKey(keys.buildingName()));
+        }
+    }
+
+    private void evict(String cacheName, Object key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
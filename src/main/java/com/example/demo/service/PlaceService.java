@@ -1,25 +1,46 @@
 package com.example.demo.service;
 
 
+import com.example.demo.config.CacheConfig;
 import com.example.demo.dto.place.CreatePlaceRequest;
+import com.example.demo.dto.place.PlaceCursor;
 import com.example.demo.dto.place.PlaceDTO;
+import com.example.demo.dto.place.PlaceListItem;
+import com.example.demo.dto.place.PlacePage;
+import com.example.demo.dto.place.PlaceSummaryDTO;
+import com.example.demo.dto.place.PlaceSuggestionDTO;
+import com.example.demo.dto.place.PlaceView;
 import com.example.demo.dto.place.UpdatePlaceRequest;
 import com.example.demo.entity.Place;
 import com.example.demo.entity.PlaceType;
+import com.example.demo.event.PlaceChangedEvent;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.geo.GeoPoint;
+import com.example.demo.geo.GeoUtils;
+import com.example.demo.geo.PlaceSpatialIndex;
 import com.example.demo.repository.PlaceRepository;
+import com.example.demo.search.PlaceAutocompleteIndex;
+import com.example.demo.search.PlaceSearchIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,64 +49,122 @@ public class PlaceService {
 
     private static final Logger logger = LoggerFactory.getLogger(PlaceService.class);
 
+    public static final int DEFAULT_SEARCH_LIMIT = 50;
+    public static final int MAX_SEARCH_LIMIT = 200;
+
     @Autowired
     private PlaceRepository placeRepository;
 
+    @Autowired
+    private PlaceSpatialIndex placeSpatialIndex;
+
+    @Autowired
+    private PlaceSearchIndex placeSearchIndex;
+
+    @Autowired
+    private PlaceAutocompleteIndex placeAutocompleteIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Proxy propio: las llamadas internas a métodos @Cacheable deben pasar por la caché
+    @Autowired
+    @Lazy
+    private PlaceService self;
+
+    @Value("${places.autocomplete.max-results:10}")
+    private int autocompleteMaxResults;
+
+    @Value("${places.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${places.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    // Consulta de ids por keyset: (último nombre, último id, límite) → ids ordenados por (name, id)
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<UUID> findIdsAfter(String lastName, UUID lastId, Pageable pageable);
+    }
+
     // Obtener todos los lugares
+    @Cacheable(CacheConfig.PLACES_ALL)
     public List<PlaceDTO> getAllPlaces() {
-        List<Place> places = placeRepository.findAll();
+        List<Place> places = placeRepository.findAllWithDetails();
         return places.stream()
                 .map(PlaceDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
     // Obtener lugar por ID
+    @Cacheable(CacheConfig.PLACES_BY_ID)
     public PlaceDTO getPlaceById(UUID id) {
-        Place place = placeRepository.findById(id)
+        Place place = placeRepository.findWithDetailsById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Lugar", "id", id));
         return PlaceDTO.fromEntity(place);
     }
 
     // Buscar lugares por texto
     public List<PlaceDTO> searchPlaces(String query) {
+        return searchPlaces(query, DEFAULT_SEARCH_LIMIT);
+    }
+
+    // Buscar lugares por texto, ordenados por relevancia (top-k)
+    public List<PlaceDTO> searchPlaces(String query, int limit) {
         if (query == null || query.trim().isEmpty()) {
-            return getAllPlaces();
+            return self.getAllPlaces();
         }
 
-        List<Place> places = placeRepository.searchPlaces(query.trim());
-        return places.stream()
-                .map(PlaceDTO::fromEntity)
-                .collect(Collectors.toList());
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("El límite debe estar entre 1 y " + MAX_SEARCH_LIMIT);
+        }
+
+        List<UUID> ids = placeSearchIndex.search(query.trim(), limit);
+        return findPlacesInOrder(ids);
+    }
+
+    // Sugerencias de autocompletado (solo id, nombre y edificio)
+    public List<PlaceSuggestionDTO> autocompletePlaces(String query, Integer limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return List.of();
+        }
+
+        int effectiveLimit = limit == null ? autocompleteMaxResults : Math.min(limit, autocompleteMaxResults);
+        if (effectiveLimit <= 0) {
+            throw new BadRequestException("El límite debe ser mayor a 0");
+        }
+
+        return placeAutocompleteIndex.suggest(query, effectiveLimit);
     }
 
     // Obtener lugares por tipo
+    @Cacheable(value = CacheConfig.PLACES_BY_TYPE, key = "#placeTypeString.toUpperCase()")
     public List<PlaceDTO> getPlacesByType(String placeTypeString) {
-        try {
-            PlaceType placeType = PlaceType.valueOf(placeTypeString.toUpperCase());
-            List<Place> places = placeRepository.findByPlaceType(placeType);
-            return places.stream()
-                    .map(PlaceDTO::fromEntity)
-                    .collect(Collectors.toList());
-        } catch (IllegalArgumentException e) {
-            throw new BadRequestException("Tipo de lugar inválido: " + placeTypeString);
-        }
+        PlaceType placeType = parsePlaceType(placeTypeString);
+        List<Place> places = placeRepository.findWithDetailsByPlaceType(placeType);
+        return places.stream()
+                .map(PlaceDTO::fromEntity)
+                .collect(Collectors.toList());
     }
 
     // Obtener lugares disponibles
+    @Cacheable(value = CacheConfig.PLACES_BY_AVAILABILITY, condition = "#isAvailable != null")
     public List<PlaceDTO> getAvailablePlaces(Boolean isAvailable) {
-        List<Place> places = placeRepository.findByIsAvailable(isAvailable);
+        List<Place> places = placeRepository.findWithDetailsByIsAvailable(isAvailable);
         return places.stream()
                 .map(PlaceDTO::fromEntity)
                 .collect(Collectors.toList());
     }
 
     // Obtener lugares por edificio
+    @Cacheable(value = CacheConfig.PLACES_BY_BUILDING, key = "T(com.example.demo.config.CacheConfig).buildingKey(#buildingName)",
+            condition = "#buildingName != null && !#buildingName.isBlank()")
     public List<PlaceDTO> getPlacesByBuilding(String buildingName) {
         if (buildingName == null || buildingName.trim().isEmpty()) {
             throw new BadRequestException("Nombre del edificio es obligatorio");
         }
 
-        List<Place> places = placeRepository.findByBuildingName(buildingName.trim());
+        List<Place> places = placeRepository.findWithDetailsByBuildingName(buildingName.trim());
         return places.stream()
                 .map(PlaceDTO::fromEntity)
                 .collect(Collectors.toList());
@@ -97,7 +176,7 @@ public class PlaceService {
             throw new BadRequestException("Código what3words es obligatorio");
         }
 
-        Place place = placeRepository.findByWhat3words(what3words.trim())
+        Place place = placeRepository.findWithDetailsByWhat3words(what3words.trim())
                 .orElseThrow(() -> new ResourceNotFoundException("Lugar", "what3words", what3words));
         
         return PlaceDTO.fromEntity(place);
@@ -105,25 +184,88 @@ public class PlaceService {
 
     // Obtener lugares cercanos
     public List<PlaceDTO> getNearbyPlaces(BigDecimal latitude, BigDecimal longitude, BigDecimal radiusKm) {
-        validateCoordinates(latitude, longitude);
+        // Mantener el orden por distancia que entrega el índice
+        return findPlacesInOrder(findNearbyIds(latitude, longitude, radiusKm));
+    }
 
-        if (radiusKm == null || radiusKm.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new BadRequestException("El radio debe ser mayor a 0");
+    // 📍 VISTA RESUMIDA (proyección directa desde la consulta, sin hidratar entidades)
+
+    public List<PlaceSummaryDTO> getAllPlaceSummaries() {
+        return placeRepository.findAllSummaries();
+    }
+
+    public List<PlaceSummaryDTO> getPlaceSummariesByType(String placeTypeString) {
+        return placeRepository.findSummariesByPlaceType(parsePlaceType(placeTypeString));
+    }
+
+    public List<PlaceSummaryDTO> getAvailablePlaceSummaries(Boolean isAvailable) {
+        return placeRepository.findSummariesByIsAvailable(isAvailable);
+    }
+
+    public List<PlaceSummaryDTO> getPlaceSummariesByBuilding(String buildingName) {
+        return placeRepository.findSummariesByBuildingName(requireBuildingName(buildingName));
+    }
+
+    public List<PlaceSummaryDTO> searchPlaceSummaries(String query, int limit) {
+        if (query == null || query.trim().isEmpty()) {
+            return getAllPlaceSummaries();
         }
 
-        if (radiusKm.compareTo(new BigDecimal("50")) > 0) {
-            throw new BadRequestException("El radio máximo es 50km");
+        if (limit <= 0 || limit > MAX_SEARCH_LIMIT) {
+            throw new BadRequestException("El límite debe estar entre 1 y " + MAX_SEARCH_LIMIT);
         }
 
-        List<Place> places = placeRepository.findNearbyPlaces(latitude, longitude, radiusKm);
-        return places.stream()
-                .map(PlaceDTO::fromEntity)
-                .collect(Collectors.toList());
+        return findSummariesInOrder(placeSearchIndex.search(query.trim(), limit));
+    }
+
+    public List<PlaceSummaryDTO> getNearbyPlaceSummaries(BigDecimal latitude, BigDecimal longitude, BigDecimal radiusKm) {
+        return findSummariesInOrder(findNearbyIds(latitude, longitude, radiusKm));
+    }
+
+    // 📄 LISTADOS PAGINADOS (cursor)
+
+    public PlacePage<? extends PlaceListItem> getAllPlacesPage(String cursor, Integer size, PlaceView view) {
+        return keysetPage(cursor, size, placeRepository::findIdsAfter, loaderFor(view));
+    }
+
+    public PlacePage<? extends PlaceListItem> getPlacesByTypePage(String placeTypeString, String cursor,
+                                                                  Integer size, PlaceView view) {
+        PlaceType placeType = parsePlaceType(placeTypeString);
+        return keysetPage(cursor, size, (lastName, lastId, pageable) ->
+                placeRepository.findIdsByPlaceTypeAfter(placeType, lastName, lastId, pageable), loaderFor(view));
+    }
+
+    public PlacePage<? extends PlaceListItem> getAvailablePlacesPage(Boolean isAvailable, String cursor,
+                                                                     Integer size, PlaceView view) {
+        return keysetPage(cursor, size, (lastName, lastId, pageable) ->
+                placeRepository.findIdsByIsAvailableAfter(isAvailable, lastName, lastId, pageable), loaderFor(view));
+    }
+
+    public PlacePage<? extends PlaceListItem> getPlacesByBuildingPage(String buildingName, String cursor,
+                                                                      Integer size, PlaceView view) {
+        String building = requireBuildingName(buildingName);
+        return keysetPage(cursor, size, (lastName, lastId, pageable) ->
+                placeRepository.findIdsByBuildingNameAfter(building, lastName, lastId, pageable), loaderFor(view));
+    }
+
+    public PlacePage<? extends PlaceListItem> searchPlacesPage(String query, String cursor,
+                                                               Integer size, PlaceView view) {
+        if (query == null || query.trim().isEmpty()) {
+            return getAllPlacesPage(cursor, size, view);
+        }
+
+        return rankedPage(placeSearchIndex.searchAll(query.trim()), cursor, size, loaderFor(view));
+    }
+
+    public PlacePage<? extends PlaceListItem> getNearbyPlacesPage(BigDecimal latitude, BigDecimal longitude,
+                                                                  BigDecimal radiusKm, String cursor,
+                                                                  Integer size, PlaceView view) {
+        return rankedPage(findNearbyIds(latitude, longitude, radiusKm), cursor, size, loaderFor(view));
     }
 
     // Crear nuevo lugar (solo ADMIN)
     public PlaceDTO createPlace(CreatePlaceRequest request) {
-        validateCoordinates(request.getLatitude(), request.getLongitude());
+        GeoUtils.validateCoordinates(request.getLatitude(), request.getLongitude());
 
         // Verificar que no exista un lugar con el mismo what3words
         if (request.getWhat3words() != null && !request.getWhat3words().trim().isEmpty()) {
@@ -137,6 +279,7 @@ public class PlaceService {
 
         try {
             Place savedPlace = placeRepository.save(place);
+            eventPublisher.publishEvent(PlaceChangedEvent.saved(savedPlace));
             logger.info("Nuevo lugar creado: {} (ID: {})", savedPlace.getName(), savedPlace.getId());
             return PlaceDTO.fromEntity(savedPlace);
         } catch (Exception e) {
@@ -151,7 +294,7 @@ public class PlaceService {
                 .orElseThrow(() -> new ResourceNotFoundException("Lugar", "id", id));
 
         if (request.getLatitude() != null && request.getLongitude() != null) {
-            validateCoordinates(request.getLatitude(), request.getLongitude());
+            GeoUtils.validateCoordinates(request.getLatitude(), request.getLongitude());
         }
 
         // Verificar what3words si se está actualizando
@@ -164,10 +307,12 @@ public class PlaceService {
                     });
         }
 
+        PlaceChangedEvent.CatalogKeys previousKeys = PlaceChangedEvent.CatalogKeys.of(place);
         mapUpdateRequestToEntity(request, place);
 
         try {
             Place updatedPlace = placeRepository.save(place);
+            eventPublisher.publishEvent(PlaceChangedEvent.updated(updatedPlace, previousKeys));
             logger.info("Lugar actualizado: {} (ID: {})", updatedPlace.getName(), updatedPlace.getId());
             return PlaceDTO.fromEntity(updatedPlace);
         } catch (Exception e) {
@@ -183,6 +328,7 @@ public class PlaceService {
 
         try {
             placeRepository.delete(place);
+            eventPublisher.publishEvent(PlaceChangedEvent.deleted(place.getId(), PlaceChangedEvent.CatalogKeys.of(place)));
             logger.info("Lugar eliminado: {} (ID: {})", place.getName(), place.getId());
         } catch (Exception e) {
             logger.error("Error eliminando lugar: {}", e.getMessage());
@@ -191,18 +337,130 @@ public class PlaceService {
     }
 
     // Métodos auxiliares privados
-    private void validateCoordinates(BigDecimal latitude, BigDecimal longitude) {
-        if (latitude == null || longitude == null) {
-            throw new BadRequestException("Latitud y longitud son obligatorias");
+
+    private PlaceType parsePlaceType(String placeTypeString) {
+        try {
+            return PlaceType.valueOf(placeTypeString.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Tipo de lugar inválido: " + placeTypeString);
         }
+    }
 
-        if (latitude.compareTo(new BigDecimal("-90")) < 0 || latitude.compareTo(new BigDecimal("90")) > 0) {
-            throw new BadRequestException("Latitud debe estar entre -90 y 90");
+    private List<UUID> findNearbyIds(BigDecimal latitude, BigDecimal longitude, BigDecimal radiusKm) {
+        GeoUtils.validateCoordinates(latitude, longitude);
+
+        if (radiusKm == null || radiusKm.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new BadRequestException("El radio debe ser mayor a 0");
         }
 
-        if (longitude.compareTo(new BigDecimal("-180")) < 0 || longitude.compareTo(new BigDecimal("180")) > 0) {
-            throw new BadRequestException("Longitud debe estar entre -180 y 180");
+        if (radiusKm.doubleValue() > PlaceSpatialIndex.MAX_RADIUS_KM) {
+            throw new BadRequestException("El radio máximo es " + Math.round(PlaceSpatialIndex.MAX_RADIUS_KM) + "km");
         }
+
+        // El índice en memoria resuelve el radio; MySQL solo hidrata los lugares encontrados
+        GeoPoint origin = GeoPoint.of(latitude, longitude);
+        return placeSpatialIndex.findWithinRadius(origin, radiusKm.doubleValue())
+                .stream()
+                .map(PlaceSpatialIndex.Hit::id)
+                .collect(Collectors.toList());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (size <= 0) {
+            throw new BadRequestException("El tamaño de página debe ser mayor a 0");
+        }
+        // El servidor impone el máximo aunque el cliente pida más
+        return Math.min(size, maxPageSize);
+    }
+
+    private String requireBuildingName(String buildingName) {
+        if (buildingName == null || buildingName.trim().isEmpty()) {
+            throw new BadRequestException("Nombre del edificio es obligatorio");
+        }
+        return buildingName.trim();
+    }
+
+    private Function<List<UUID>, List<? extends PlaceListItem>> loaderFor(PlaceView view) {
+        return view == PlaceView.SUMMARY ? this::findSummariesInOrder : this::findPlacesInOrder;
+    }
+
+    // Página ordenada por (name, id): se pide un elemento extra para saber si hay más
+    private PlacePage<? extends PlaceListItem> keysetPage(String cursor, Integer size, KeysetQuery query,
+                                                          Function<List<UUID>, List<? extends PlaceListItem>> loader) {
+        int pageSize = resolvePageSize(size);
+        PlaceCursor after = cursor == null || cursor.isBlank() ? PlaceCursor.start() : PlaceCursor.decode(cursor);
+        if (!after.isKeyset()) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+
+        List<UUID> ids = query.findIdsAfter(after.getLastName(), after.getLastId(), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = ids.size() > pageSize;
+        List<? extends PlaceListItem> items = loader.apply(hasMore ? ids.subList(0, pageSize) : ids);
+
+        String nextCursor = null;
+        if (hasMore && !items.isEmpty()) {
+            PlaceListItem last = items.get(items.size() - 1);
+            nextCursor = PlaceCursor.keyset(last.getName(), last.getId()).encode();
+        }
+        return new PlacePage<>(items, nextCursor);
+    }
+
+    // Página sobre una lista ya ordenada en memoria (relevancia o distancia)
+    private PlacePage<? extends PlaceListItem> rankedPage(List<UUID> rankedIds, String cursor, Integer size,
+                                                          Function<List<UUID>, List<? extends PlaceListItem>> loader) {
+        int pageSize = resolvePageSize(size);
+
+        int start = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            PlaceCursor after = PlaceCursor.decode(cursor);
+            if (after.isKeyset()) {
+                throw new BadRequestException("Cursor de paginación inválido");
+            }
+            // Reanudar tras el último id entregado aunque el orden haya cambiado; si ya no está, usar la posición
+            int lastIndex = rankedIds.indexOf(after.getLastId());
+            start = lastIndex >= 0 ? lastIndex + 1 : Math.min(after.getPosition(), rankedIds.size());
+        }
+
+        int end = Math.min(start + pageSize, rankedIds.size());
+        List<? extends PlaceListItem> items = loader.apply(rankedIds.subList(start, end));
+
+        String nextCursor = end < rankedIds.size()
+                ? PlaceCursor.ranked(end, rankedIds.get(end - 1)).encode()
+                : null;
+        return new PlacePage<>(items, nextCursor);
+    }
+
+    // Hidrata los lugares respetando el orden de ids que entrega un índice en memoria
+    private List<PlaceDTO> findPlacesInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, Place> placesById = placeRepository.findWithDetailsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Place::getId, Function.identity()));
+
+        return ids.stream()
+                .map(placesById::get)
+                .filter(Objects::nonNull)
+                .map(PlaceDTO::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    private List<PlaceSummaryDTO> findSummariesInOrder(List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<UUID, PlaceSummaryDTO> summariesById = placeRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(PlaceSummaryDTO::getId, Function.identity()));
+
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     private void mapRequestToEntity(CreatePlaceRequest request, Place place) {
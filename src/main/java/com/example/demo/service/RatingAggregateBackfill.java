@@ -0,0 +1,30 @@
+package com.example.demo.service;
+
+import com.example.demo.repository.RouteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Completa una sola vez la suma, el conteo y el histograma de calificaciones de las rutas
+ * creadas antes de que existieran esas columnas (quedan en NULL tras ddl-auto: update).
+ */
+@Component
+public class RatingAggregateBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingAggregateBackfill.class);
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        int updated = routeRepository.recalculateMissingRatingAggregates();
+        if (updated > 0) {
+            logger.info("⭐ Agregados de calificación recalculados para {} rutas", updated);
+        }
+    }
+}
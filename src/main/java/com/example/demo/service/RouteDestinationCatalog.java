@@ -0,0 +1,96 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.place.PlaceDTO;
+import com.example.demo.entity.Place;
+import com.example.demo.event.PlaceChangedEvent;
+import com.example.demo.event.RouteChangedEvent;
+import com.example.demo.repository.PlaceRepository;
+import com.example.demo.repository.RouteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo en memoria de destinos con rutas activas. Se calcula con una sola consulta
+ * agregada (destino, cantidad de rutas activas, mejor calificación) más la carga de los
+ * lugares, y se marca como desactualizado cuando cambia una ruta o un lugar.
+ */
+@Component
+public class RouteDestinationCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteDestinationCatalog.class);
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    private volatile List<PlaceDTO> destinations = List.of();
+    private volatile boolean stale = true;
+
+    /**
+     * Destinos ordenados por la mejor calificación de sus rutas activas.
+     */
+    @Transactional(readOnly = true)
+    public List<PlaceDTO> getDestinations() {
+        if (stale) {
+            refresh();
+        }
+        return destinations;
+    }
+
+    public int size() {
+        return getDestinations().size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        stale = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPlaceChanged(PlaceChangedEvent event) {
+        stale = true;
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private synchronized void refresh() {
+        if (!stale) return;
+        // Se baja la marca antes de leer: un cambio concurrente vuelve a marcarla y fuerza otra recarga
+        stale = false;
+
+        List<Object[]> rows = routeRepository.findActiveDestinationStats();
+        List<UUID> placeIds = rows.stream()
+                .map(row -> (UUID) row[0])
+                .collect(Collectors.toList());
+
+        Map<UUID, Place> placesById = placeRepository.findWithDetailsByIdIn(placeIds).stream()
+                .collect(Collectors.toMap(Place::getId, Function.identity()));
+
+        List<PlaceDTO> catalog = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Place place = placesById.get((UUID) row[0]);
+            if (place == null) continue;
+
+            PlaceDTO dto = PlaceDTO.fromEntity(place);
+            dto.setRouteCount(((Long) row[1]).intValue());
+            catalog.add(dto);
+        }
+
+        destinations = Collections.unmodifiableList(catalog);
+        logger.info("🎯 Catálogo de destinos actualizado: {} destinos", catalog.size());
+    }
+}
@@ -3,19 +3,21 @@ package com.example.demo.service;
 
 import com.example.demo.dto.route.*;
 import com.example.demo.entity.*;
+import com.example.demo.event.RouteChangedEvent;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.geo.GeoUtils;
 import com.example.demo.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.math.BigDecimal;
 
 @Service
 @Transactional
@@ -38,6 +40,12 @@ public class RouteProposalService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private UsageCounterService usageCounterService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // 🔐 ENDPOINTS PROTEGIDOS (cualquier usuario logueado)
 
     /**
@@ -131,7 +139,8 @@ public class RouteProposalService {
         }
         
         // Actualizar contador de rutas del destino
-        proposal.getToPlace().incrementRouteCount();
+        usageCounterService.incrementRouteCount(proposal.getToPlace().getId());
+        eventPublisher.publishEvent(RouteChangedEvent.created(savedRoute.getId()));
         
         logger.info("✅ Propuesta aprobada y ruta creada: {}", savedRoute.getName());
         return RouteDTO.fromEntity(savedRoute);
@@ -170,15 +179,7 @@ public class RouteProposalService {
         }
 
         // Validar que las coordenadas estén en rangos válidos
-        if (request.getFromLatitude().compareTo(new BigDecimal("-90")) < 0 || 
-            request.getFromLatitude().compareTo(new BigDecimal("90")) > 0) {
-            throw new BadRequestException("Latitud debe estar entre -90 y 90");
-        }
-
-        if (request.getFromLongitude().compareTo(new BigDecimal("-180")) < 0 || 
-            request.getFromLongitude().compareTo(new BigDecimal("180")) > 0) {
-            throw new BadRequestException("Longitud debe estar entre -180 y 180");
-        }
+        GeoUtils.validateCoordinates(request.getFromLatitude(), request.getFromLongitude());
     }
 
     private Route createRouteFromProposal(RouteProposal proposal, User admin) {
@@ -2,17 +2,30 @@ package com.example.demo.service;
 
 import com.example.demo.dto.route.*;
 import com.example.demo.entity.*;
+import com.example.demo.event.RouteChangedEvent;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
+import com.example.demo.geo.CampusWalkingGraph;
+import com.example.demo.geo.GeoPoint;
+import com.example.demo.geo.GeoUtils;
+import com.example.demo.geo.PolylineEncoder;
+import com.example.demo.geo.RouteGeometry;
+import com.example.demo.geo.RouteGeometryCache;
+import com.example.demo.geo.WalkingGraph;
 import com.example.demo.repository.*;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.example.demo.dto.place.PlaceDTO;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -22,18 +35,52 @@ public class RouteService {
 
     private static final Logger logger = LoggerFactory.getLogger(RouteService.class);
 
+    private static final double NEAREST_ROUTE_RADIUS_KM = 5.0;
+
     @Autowired
     private RouteRepository routeRepository;
 
     @Autowired
     private RoutePointRepository routePointRepository;
 
+    @Autowired
+    private RouteRatingRepository routeRatingRepository;
+
+    @Autowired
+    private NavigationHistoryRepository navigationHistoryRepository;
+
     @Autowired
     private PlaceService placeService;
 
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private RouteDestinationCatalog routeDestinationCatalog;
+
+    @Autowired
+    private RouteGeometryCache routeGeometryCache;
+
+    // Puntos de score que resta cada km entre el usuario y el inicio de la ruta
+    @Value("${routes.nearest.distance-weight:1.0}")
+    private double nearestDistanceWeight;
+
+    @Autowired
+    private CampusWalkingGraph campusWalkingGraph;
+
+    @Autowired
+    private TravelTimeMatrix travelTimeMatrix;
+
+    // Distancia máxima desde el origen (o el destino) hasta el nodo más cercano del grafo
+    @Value("${routes.graph.max-access-distance-meters:200}")
+    private double maxAccessDistanceMeters;
+
+    @Autowired
+    private UsageCounterService usageCounterService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // 🌐 ENDPOINTS PÚBLICOS (sin autenticación)
 
     /**
@@ -42,15 +89,8 @@ public class RouteService {
     public List<PlaceDTO> getAvailableDestinations() {
         logger.info("🎯 Obteniendo destinos disponibles con rutas");
         
-        List<Place> destinations = routeRepository.findByIsActiveTrueOrderByAverageRatingDesc()
-                .stream()
-                .map(Route::getToPlace)
-                .distinct()
-                .collect(Collectors.toList());
-
-        return destinations.stream()
-                .map(PlaceDTO::fromEntity)
-                .collect(Collectors.toList());
+        // Catálogo precalculado; routeCount refleja solo las rutas activas
+        return routeDestinationCatalog.getDestinations();
     }
 
     /**
@@ -59,15 +99,13 @@ public class RouteService {
     public List<RouteDTO> getRoutesToDestination(UUID placeId) {
         logger.info("🗺️ Obteniendo rutas para destino: {}", placeId);
         
-        Place destination = placeService.getPlaceEntityById(placeId);
-        List<Route> routes = routeRepository.findByToPlaceIdAndIsActiveTrue(placeId);
+        // Una sola consulta: destino y creador incluidos, ordenado por calificación y uso en SQL
+        List<Route> routes = routeRepository.findActiveByDestinationWithDetails(placeId);
         
-        // Ordenar por calificación promedio y uso
-        routes.sort((r1, r2) -> {
-            int ratingCompare = r2.getAverageRating().compareTo(r1.getAverageRating());
-            if (ratingCompare != 0) return ratingCompare;
-            return r2.getTimesUsed().compareTo(r1.getTimesUsed());
-        });
+        // Solo si no hay rutas se comprueba que el destino exista (404)
+        if (routes.isEmpty()) {
+            placeService.getPlaceEntityById(placeId);
+        }
 
         return routes.stream()
                 .map(RouteDTO::fromEntity)
@@ -78,18 +116,20 @@ public class RouteService {
      * GET /api/routes/{routeId}/points - Puntos detallados de una ruta
      */
     public List<RoutePointDTO> getRoutePoints(UUID routeId) {
+        return getRouteGeometry(routeId).points();
+    }
+
+    /**
+     * Geometría compilada de una ruta activa (puntos, instrucciones y JSON ya serializado)
+     */
+    public RouteGeometry getRouteGeometry(UUID routeId) {
         logger.info("📍 Obteniendo puntos de ruta: {}", routeId);
         
-        Route route = getRouteEntityById(routeId);
-        if (!route.getIsActive()) {
+        RouteGeometry geometry = routeGeometryCache.get(routeId);
+        if (!geometry.active()) {
             throw new BadRequestException("La ruta no está activa");
         }
-
-        List<RoutePoint> points = routePointRepository.findByRouteIdOrderByOrderIndexAsc(routeId);
-        
-        return points.stream()
-                .map(RoutePointDTO::fromEntity)
-                .collect(Collectors.toList());
+        return geometry;
     }
 
     /**
@@ -98,42 +138,118 @@ public class RouteService {
     public RouteDTO getNearestRoute(BigDecimal latitude, BigDecimal longitude, UUID destinationId) {
         logger.info("🎯 Buscando ruta más cercana desde {},{} a destino: {}", latitude, longitude, destinationId);
         
-        validateCoordinates(latitude, longitude);
-        Place destination = placeService.getPlaceEntityById(destinationId);
+        GeoUtils.validateCoordinates(latitude, longitude);
         
-        // Buscar rutas cercanas en un radio de 5km
-        List<Route> nearbyRoutes = routeRepository.findNearbyRoutes(latitude, longitude, new BigDecimal("5.0"))
-                .stream()
-                .filter(route -> route.getToPlace().getId().equals(destinationId))
-                .filter(Route::getIsActive)
-                .collect(Collectors.toList());
+        // Destino, radio y ranking (calificación, uso y distancia) se resuelven en una sola consulta
+        Optional<Route> bestRoute = routeRepository.findBestNearbyRouteToDestination(
+                destinationId, GeoPoint.of(latitude, longitude), NEAREST_ROUTE_RADIUS_KM, nearestDistanceWeight);
 
-        if (nearbyRoutes.isEmpty()) {
+        if (bestRoute.isEmpty()) {
+            // Distinguir destino inexistente (404 del lugar) de destino sin rutas cercanas
+            placeService.getPlaceEntityById(destinationId);
             throw new ResourceNotFoundException("No se encontraron rutas cercanas a este destino");
         }
 
-        // Seleccionar la mejor ruta (más cercana + mejor calificada)
-        Route bestRoute = nearbyRoutes.stream()
-                .max((r1, r2) -> {
-                    // Priorizar calificación alta
-                    int ratingCompare = r1.getAverageRating().compareTo(r2.getAverageRating());
-                    if (ratingCompare != 0) return ratingCompare;
-                    // Luego por uso frecuente
-                    return r1.getTimesUsed().compareTo(r2.getTimesUsed());
-                })
-                .orElseThrow(() -> new ResourceNotFoundException("No se pudo determinar la mejor ruta"));
-
-        return RouteDTO.fromEntity(bestRoute);
+        return RouteDTO.fromEntity(bestRoute.get());
+    }
+
+    /**
+     * GET /api/routes/path?lat=X&lng=Y&destination=placeId - Camino peatonal más corto por el grafo del campus
+     */
+    public WalkingPathDTO findWalkingPath(BigDecimal latitude, BigDecimal longitude, UUID destinationId) {
+        logger.info("🚶 Calculando camino desde {},{} a destino: {}", latitude, longitude, destinationId);
+        
+        GeoUtils.validateCoordinates(latitude, longitude);
+        PlaceDTO destination = placeService.getPlaceById(destinationId);
+        
+        double fromLat = latitude.doubleValue();
+        double fromLng = longitude.doubleValue();
+        WalkingGraph graph = campusWalkingGraph.getGraph();
+        
+        int start = graph.nearestNode(fromLat, fromLng, maxAccessDistanceMeters);
+        if (start < 0) {
+            throw new BadRequestException("No hay caminos del campus a menos de " +
+                    Math.round(maxAccessDistanceMeters) + " m del origen");
+        }
+        
+        // Las rutas que llegan al lugar terminan en él; si no hay, se usa el nodo más cercano al lugar
+        int[] goals = graph.destinationNodes(destinationId);
+        int nearestToPlace = -1;
+        if (goals.length == 0 && destination.getLatitude() != null && destination.getLongitude() != null) {
+            nearestToPlace = graph.nearestNode(destination.getLatitude().doubleValue(),
+                    destination.getLongitude().doubleValue(), maxAccessDistanceMeters);
+            goals = nearestToPlace >= 0 ? new int[] { nearestToPlace } : goals;
+        }
+        
+        WalkingGraph.Path path = graph.shortestPath(fromLat, fromLng, start, goals);
+        if (path == null) {
+            throw new ResourceNotFoundException("Camino no encontrado hacia este destino");
+        }
+        
+        // Desde el nodo más cercano falta el tramo hasta el lugar, igual que el de acceso al inicio
+        if (nearestToPlace >= 0) {
+            double toLat = destination.getLatitude().doubleValue();
+            double toLng = destination.getLongitude().doubleValue();
+            path = path.withEgress(toLat, toLng, graph.distanceToNodeMeters(nearestToPlace, toLat, toLng));
+        }
+        
+        // Mismo ritmo que la matriz de tiempos (promedio de las rutas activas)
+        double minutesPerMeter = campusWalkingGraph.minutesPerMeter();
+        WalkingPathDTO dto = new WalkingPathDTO();
+        dto.setDestinationId(destinationId);
+        dto.setTotalDistance((int) Math.round(path.totalMeters()));
+        dto.setAccessDistance((int) Math.round(path.accessMeters()));
+        dto.setEstimatedTime((int) Math.max(1, Math.ceil(path.totalMeters() * minutesPerMeter)));
+        dto.setEncoding(PolylineEncoder.ENCODING);
+        dto.setPolyline(PolylineEncoder.encode(path.latitudes(), path.longitudes()));
+        dto.setPointCount(path.latitudes().length);
+        return dto;
+    }
+
+    /**
+     * GET /api/routes/matrix?from=placeId&to=id1,id2 - Distancias y tiempos precalculados desde un destino
+     */
+    public List<TravelTimeDTO> getTravelTimes(UUID fromPlaceId, List<UUID> toPlaceIds) {
+        logger.info("🧮 Consultando matriz de tiempos desde: {}", fromPlaceId);
+        
+        List<TravelTimeMatrix.Entry> row = travelTimeMatrix.row(fromPlaceId, toPlaceIds);
+        if (row == null) {
+            // Distinguir lugar inexistente (404 del lugar) de lugar sin rutas activas
+            placeService.getPlaceEntityById(fromPlaceId);
+            throw new ResourceNotFoundException("Lugar no encontrado en la matriz: no tiene rutas activas");
+        }
+        
+        return row.stream()
+                .sorted(Comparator.comparingDouble(TravelTimeMatrix.Entry::minutes))
+                .map(entry -> new TravelTimeDTO(entry.placeId(),
+                        Math.round(entry.distanceMeters()),
+                        (int) Math.max(1, Math.ceil(entry.minutes()))))
+                .collect(Collectors.toList());
     }
 
     /**
      * GET /api/routes/{routeId}/details - Información completa de una ruta
      */
     public RouteDTO getRouteDetails(UUID routeId) {
+        return getRouteDetails(routeId, RouteGeometryFormat.FULL);
+    }
+
+    public RouteDTO getRouteDetails(UUID routeId, RouteGeometryFormat format) {
         logger.info("📋 Obteniendo detalles completos de ruta: {}", routeId);
         
-        Route route = getRouteEntityById(routeId);
-        return RouteDTO.fromEntityWithPoints(route);
+        Route route = routeRepository.findWithDetailsById(routeId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ruta", "id", routeId));
+        
+        // Los puntos salen de la geometría en caché; se recompila si la ruta cambió (updatedAt)
+        RouteGeometry geometry = routeGeometryCache.get(route);
+        RouteDTO dto = RouteDTO.fromEntity(route);
+        if (format == RouteGeometryFormat.POLYLINE) {
+            dto.setRoutePoints(null);
+            dto.setGeometry(geometry.compact());
+        } else {
+            dto.setRoutePoints(geometry.points());
+        }
+        return dto;
     }
 
     // 🔐 ENDPOINTS PROTEGIDOS (requieren JWT - cualquier usuario logueado)
@@ -148,27 +264,33 @@ public class RouteService {
         Route route = getRouteEntityById(routeId);
         
         // Verificar que el usuario haya completado una navegación con esta ruta
-        boolean hasCompletedNavigation = currentUser.getNavigationHistory().stream()
-                .anyMatch(nav -> nav.getRouteUsed() != null && 
-                               nav.getRouteUsed().getId().equals(routeId) && 
-                               nav.getRouteCompleted());
-        
-        if (!hasCompletedNavigation) {
+        // (consulta de existencia sobre (user_id, route_used_id) en vez de recorrer todo su historial)
+        if (!navigationHistoryRepository.hasUserCompletedRoute(currentUser, route)) {
             throw new BadRequestException("Solo puedes calificar rutas que hayas completado");
         }
 
-        // Verificar si ya calificó esta ruta
-        if (currentUser.hasRouteRating(route)) {
+        // Verificar si ya calificó esta ruta (la restricción única (route_id, user_id) la respalda)
+        if (routeRatingRepository.existsByRouteAndUser(route, currentUser)) {
             throw new BadRequestException("Ya has calificado esta ruta");
         }
 
         RouteRating rating = new RouteRating(route, currentUser, request.getRating(), request.getComment());
-        
+        try {
+            // flush inmediato: si dos solicitudes concurrentes pasan la verificación, la segunda choca aquí
+            routeRatingRepository.saveAndFlush(rating);
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateRating(e)) {
+                throw e;
+            }
+            throw new BadRequestException("Ya has calificado esta ruta");
+        }
+
         // Agregar puntos de contribución
         currentUser.addContributionPoints(5); // 5 puntos por calificar una ruta
-        
-        route.addRating(rating);
-        routeRepository.save(route);
+
+        // Suma, conteo e histograma se actualizan en SQL sin cargar las calificaciones existentes
+        routeRepository.applyRating(routeId, request.getRating());
+        eventPublisher.publishEvent(RouteChangedEvent.rated(routeId));
         
         logger.info("✅ Ruta calificada exitosamente por usuario: {}", currentUser.getEmail());
         return RouteRatingDTO.fromEntity(rating);
@@ -196,7 +318,8 @@ public class RouteService {
         createRoutePoints(savedRoute, request.getRoutePoints());
         
         // Actualizar contador de rutas del lugar de destino
-        destination.incrementRouteCount();
+        usageCounterService.incrementRouteCount(destination.getId());
+        eventPublisher.publishEvent(RouteChangedEvent.created(savedRoute.getId()));
         
         logger.info("✅ Ruta creada exitosamente: {} (ID: {})", savedRoute.getName(), savedRoute.getId());
         return RouteDTO.fromEntity(savedRoute);
@@ -215,9 +338,9 @@ public class RouteService {
         
         // Si cambió el destino, actualizar contadores
         if (!route.getToPlace().getId().equals(request.getToPlaceId())) {
-            route.getToPlace().decrementRouteCount();
             Place newDestination = placeService.getPlaceEntityById(request.getToPlaceId());
-            newDestination.incrementRouteCount();
+            usageCounterService.decrementRouteCount(route.getToPlace().getId());
+            usageCounterService.incrementRouteCount(newDestination.getId());
             route.setToPlace(newDestination);
         }
 
@@ -232,12 +355,15 @@ public class RouteService {
         route.setDifficulty(request.getDifficulty());
         route.setIsActive(request.getIsActive());
 
-        // Recrear puntos de la ruta
+        // Recrear puntos de la ruta; marcar la ruta como modificada aunque solo cambien los puntos,
+        // porque updatedAt es la versión de su geometría en caché
+        route.setUpdatedAt(LocalDateTime.now());
         routePointRepository.deleteAll(route.getRoutePoints());
         route.getRoutePoints().clear();
         createRoutePoints(route, request.getRoutePoints());
 
         Route updatedRoute = routeRepository.save(route);
+        eventPublisher.publishEvent(RouteChangedEvent.updated(updatedRoute.getId()));
         
         logger.info("✅ Ruta actualizada exitosamente: {}", updatedRoute.getName());
         return RouteDTO.fromEntity(updatedRoute);
@@ -252,9 +378,10 @@ public class RouteService {
         Route route = getRouteEntityById(routeId);
         
         // Decrementar contador del lugar de destino
-        route.getToPlace().decrementRouteCount();
+        usageCounterService.decrementRouteCount(route.getToPlace().getId());
         
         routeRepository.delete(route);
+        eventPublisher.publishEvent(RouteChangedEvent.deleted(route.getId()));
         
         logger.info("✅ Ruta eliminada exitosamente: {}", route.getName());
     }
@@ -269,7 +396,7 @@ public class RouteService {
         
         analytics.put("totalRoutes", routeRepository.countActiveRoutes());
         analytics.put("averageRating", routeRepository.getAverageRatingAllRoutes());
-        analytics.put("totalDestinations", getAvailableDestinations().size());
+        analytics.put("totalDestinations", routeDestinationCatalog.size());
         
         // Rutas más populares
         List<Route> topRoutes = routeRepository.findByIsActiveTrueOrderByTimesUsedDesc()
@@ -292,22 +419,8 @@ public class RouteService {
                 .orElseThrow(() -> new ResourceNotFoundException("Ruta", "id", routeId));
     }
 
-    private void validateCoordinates(BigDecimal latitude, BigDecimal longitude) {
-        if (latitude == null || longitude == null) {
-            throw new BadRequestException("Latitud y longitud son obligatorias");
-        }
-
-        if (latitude.compareTo(new BigDecimal("-90")) < 0 || latitude.compareTo(new BigDecimal("90")) > 0) {
-            throw new BadRequestException("Latitud debe estar entre -90 y 90");
-        }
-
-        if (longitude.compareTo(new BigDecimal("-180")) < 0 || longitude.compareTo(new BigDecimal("180")) > 0) {
-            throw new BadRequestException("Longitud debe estar entre -180 y 180");
-        }
-    }
-
     private void validateCreateRouteRequest(CreateRouteRequest request) {
-        validateCoordinates(request.getFromLatitude(), request.getFromLongitude());
+        GeoUtils.validateCoordinates(request.getFromLatitude(), request.getFromLongitude());
         
         if (request.getRoutePoints() == null || request.getRoutePoints().isEmpty()) {
             throw new BadRequestException("La ruta debe tener al menos un punto");
@@ -373,4 +486,19 @@ public class RouteService {
         routePointRepository.saveAll(points);
         route.setRoutePoints(points);
     }
+    
+    // Solo la clave única (route_id, user_id) significa calificación repetida; la otra clave
+    // única de route_ratings es la primaria (UUID generado), y las demás violaciones se propagan
+    private static boolean isDuplicateRating(DataIntegrityViolationException e) {
+        Throwable cause = e.getCause();
+        while (cause != null && !(cause instanceof ConstraintViolationException)) {
+            cause = cause.getCause();
+        }
+        if (!(cause instanceof ConstraintViolationException violation)
+                || violation.getKind() != ConstraintViolationException.ConstraintKind.UNIQUE) {
+            return false;
+        }
+        String constraintName = violation.getConstraintName();
+        return constraintName == null || !constraintName.toUpperCase().endsWith("PRIMARY");
+    }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package com.example.demo.service;
+
+import com.example.demo.event.RouteChangedEvent;
+import com.example.demo.geo.CampusWalkingGraph;
+import com.example.demo.geo.WalkingGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Matriz de distancias y tiempos a pie entre todos los destinos con rutas activas.
+ * Se calcula en segundo plano sobre el grafo peatonal (un Dijkstra por destino) y se
+ * guarda en arreglos float planos de n x n; una consulta uno-a-muchos es una fila.
+ * Mientras se recalcula se sigue sirviendo la matriz anterior.
+ */
+@Component
+public class TravelTimeMatrix {
+
+    private static final Logger logger = LoggerFactory.getLogger(TravelTimeMatrix.class);
+
+    @Autowired
+    private CampusWalkingGraph campusWalkingGraph;
+
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private TaskExecutor taskExecutor;
+
+    private volatile Snapshot snapshot;
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean(false);
+
+    /**
+     * Celda de la matriz.
+     *
+     * @param placeId        destino
+     * @param distanceMeters distancia a pie por el grafo
+     * @param minutes        tiempo estimado
+     */
+    public record Entry(UUID placeId, float distanceMeters, float minutes) {}
+
+    /**
+     * Matriz calculada sobre una versión concreta del grafo.
+     */
+    private record Snapshot(WalkingGraph graph, UUID[] placeIds, Map<UUID, Integer> indexById,
+                            float[] distances, float[] minutes) {
+
+        int size() {
+            return placeIds.length;
+        }
+    }
+
+    // Se calcula después de que el grafo peatonal cargó las rutas
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRouteChanged(RouteChangedEvent event) {
+        if (event.affectsGeometry()) {
+            scheduleRebuild();
+        }
+    }
+
+    public boolean contains(UUID placeId) {
+        return current().indexById().containsKey(placeId);
+    }
+
+    public int size() {
+        return current().size();
+    }
+
+    /**
+     * Fila de la matriz para el origen: destinos alcanzables, o solo los pedidos si
+     * {@code destinations} no es null. Devuelve null si el origen no está en la matriz.
+     */
+    public List<Entry> row(UUID originId, List<UUID> destinations) {
+        Snapshot current = current();
+        Integer from = current.indexById().get(originId);
+        if (from == null) {
+            return null;
+        }
+
+        int n = current.size();
+        int base = from * n;
+        List<Entry> entries = new ArrayList<>();
+        if (destinations == null) {
+            for (int j = 0; j < n; j++) {
+                addIfReachable(entries, current, base, j, from);
+            }
+        } else {
+            for (UUID id : destinations) {
+                Integer j = current.indexById().get(id);
+                if (j != null) {
+                    addIfReachable(entries, current, base, j, from);
+                }
+            }
+        }
+        return entries;
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private void addIfReachable(List<Entry> entries, Snapshot current, int base, int j, int from) {
+        float distance = current.distances()[base + j];
+        if (j != from && Float.isFinite(distance)) {
+            entries.add(new Entry(current.placeIds()[j], distance, current.minutes()[base + j]));
+        }
+    }
+
+    /**
+     * Matriz vigente. Si el grafo cambió desde el último cálculo se programa otro en
+     * segundo plano y mientras tanto se responde con la anterior; solo la primera
+     * consulta (sin matriz previa) calcula en línea.
+     */
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return rebuild();
+        }
+        if (current.graph() != campusWalkingGraph.getGraph()) {
+            scheduleRebuild();
+        }
+        return current;
+    }
+
+    private void scheduleRebuild() {
+        // Varios cambios seguidos se agrupan en un solo cálculo
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                rebuildScheduled.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    logger.error("Error calculando matriz de tiempos: {}", e.getMessage());
+                }
+            });
+        }
+    }
+
+    private synchronized Snapshot rebuild() {
+        WalkingGraph graph = campusWalkingGraph.refresh();
+        Snapshot current = snapshot;
+        if (current != null && current.graph() == graph) {
+            return current;
+        }
+
+        UUID[] placeIds = graph.destinationIds().toArray(new UUID[0]);
+        Arrays.sort(placeIds);
+        int n = placeIds.length;
+        Map<UUID, Integer> indexById = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexById.put(placeIds[i], i);
+        }
+
+        double minutesPerMeter = campusWalkingGraph.minutesPerMeter();
+        float[] distances = new float[n * n];
+        float[] minutes = new float[n * n];
+        for (int i = 0; i < n; i++) {
+            double[] fromPlace = graph.distancesFrom(graph.destinationNodes(placeIds[i]));
+            for (int j = 0; j < n; j++) {
+                double best = Double.POSITIVE_INFINITY;
+                for (int node : graph.destinationNodes(placeIds[j])) {
+                    best = Math.min(best, fromPlace[node]);
+                }
+                distances[i * n + j] = (float) best;
+                minutes[i * n + j] = (float) (best * minutesPerMeter);
+            }
+        }
+
+        Snapshot rebuilt = new Snapshot(graph, placeIds, indexById, distances, minutes);
+        snapshot = rebuilt;
+        logger.info("🧮 Matriz de tiempos calculada: {} destinos", n);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.Place;
+import com.example.demo.event.PlaceChangedEvent;
+import com.example.demo.repository.PlaceRepository;
+import com.example.demo.repository.RouteRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores con escritura diferida para Route.timesUsed y Place.routeCount. Los incrementos
+ * se acumulan en memoria (LongAdder por fila, sin contención entre hilos) y se vuelcan
+ * periódicamente con UPDATE ... SET col = col + :delta, agrupando las filas con el mismo
+ * delta en una sola sentencia. Así las navegaciones concurrentes de una ruta popular no
+ * compiten por el bloqueo de su fila ni pierden incrementos.
+ * Ambas columnas son updatable = false en las entidades: solo este servicio las modifica.
+ */
+@Service
+public class UsageCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsageCounterService.class);
+
+    @Autowired
+    private RouteRepository routeRepository;
+
+    @Autowired
+    private PlaceRepository placeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<UUID, LongAdder> routeUsage = new ConcurrentHashMap<>();
+    private final Map<UUID, LongAdder> placeRouteCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Suma un uso a la ruta cuando confirme la transacción actual (o de inmediato si no hay una).
+     */
+    public void recordRouteUsage(UUID routeId) {
+        afterCommit(() -> add(routeUsage, routeId, 1));
+    }
+
+    public void incrementRouteCount(UUID placeId) {
+        afterCommit(() -> add(placeRouteCounts, placeId, 1));
+    }
+
+    public void decrementRouteCount(UUID placeId) {
+        afterCommit(() -> add(placeRouteCounts, placeId, -1));
+    }
+
+    @Scheduled(fixedDelayString = "${counters.flush-interval-ms:10000}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        flush();
+    }
+
+    /**
+     * Vuelca los deltas acumulados. Si una sentencia falla, sus deltas se devuelven a los
+     * contadores para el siguiente intento.
+     */
+    public synchronized void flush() {
+        Map<Integer, List<UUID>> routeDeltas = drain(routeUsage);
+        routeDeltas.forEach((delta, ids) -> {
+            try {
+                routeRepository.incrementTimesUsed(ids, delta);
+            } catch (RuntimeException e) {
+                logger.error("Error volcando usos de {} rutas: {}", ids.size(), e.getMessage());
+                ids.forEach(id -> add(routeUsage, id, delta));
+            }
+        });
+
+        Map<Integer, List<UUID>> placeDeltas = drain(placeRouteCounts);
+        List<UUID> updatedPlaces = new ArrayList<>();
+        placeDeltas.forEach((delta, ids) -> {
+            try {
+                placeRepository.adjustRouteCount(ids, delta);
+                updatedPlaces.addAll(ids);
+            } catch (RuntimeException e) {
+                logger.error("Error volcando contadores de rutas de {} lugares: {}", ids.size(), e.getMessage());
+                ids.forEach(id -> add(placeRouteCounts, id, delta));
+            }
+        });
+
+        // routeCount forma parte de PlaceDTO: se invalidan las cachés de los lugares afectados
+        if (!updatedPlaces.isEmpty()) {
+            for (Place place : placeRepository.findAllById(updatedPlaces)) {
+                eventPublisher.publishEvent(PlaceChangedEvent.saved(place));
+            }
+        }
+
+        if (!routeDeltas.isEmpty() || !placeDeltas.isEmpty()) {
+            logger.debug("🧮 Contadores volcados: {} deltas de uso de rutas, {} de rutas por lugar",
+                    routeDeltas.size(), placeDeltas.size());
+        }
+    }
+
+    // 🔧 MÉTODOS AUXILIARES PRIVADOS
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void add(Map<UUID, LongAdder> counters, UUID id, long delta) {
+        counters.computeIfAbsent(id, key -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Toma y reinicia cada contador, agrupando los ids por delta. Los contadores no se
+     * eliminan del mapa (a lo sumo uno por ruta o lugar), así ningún incremento concurrente
+     * cae en un contador que ya no se vuelca.
+     */
+    private Map<Integer, List<UUID>> drain(Map<UUID, LongAdder> counters) {
+        Map<Integer, List<UUID>> byDelta = new HashMap<>();
+        for (Map.Entry<UUID, LongAdder> entry : counters.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta != 0) {
+                byDelta.computeIfAbsent((int) delta, d -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        return byDelta;
+    }
+}
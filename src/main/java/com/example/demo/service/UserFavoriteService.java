@@ -64,7 +64,7 @@ public class UserFavoriteService {
             userFavoriteRepository.save(favorite);
 
             logger.info("Lugar {} agregado a favoritos del usuario {}", 
-                       place.getName(), currentUser.getEmail());
+                       place.getName(), authService.getCurrentPrincipal().getEmail());
 
             return PlaceDTO.fromEntity(place);
         } catch (Exception e) {
@@ -89,7 +89,7 @@ public class UserFavoriteService {
             userFavoriteRepository.delete(favorite);
 
             logger.info("Lugar {} removido de favoritos del usuario {}", 
-                       place.getName(), currentUser.getEmail());
+                       place.getName(), authService.getCurrentPrincipal().getEmail());
         } catch (Exception e) {
             logger.error("Error removiendo lugar de favoritos: {}", e.getMessage());
             throw new RuntimeException("Error interno removiendo de favoritos");
@@ -131,7 +131,7 @@ public class UserFavoriteService {
                 userFavoriteRepository.delete(favorite);
                 
                 logger.info("Lugar {} removido de favoritos del usuario {}", 
-                           place.getName(), currentUser.getEmail());
+                           place.getName(), authService.getCurrentPrincipal().getEmail());
                 
                 return new FavoriteToggleResult(false, "Removido de favoritos", PlaceDTO.fromEntity(place));
             } else {
@@ -139,7 +139,7 @@ public class UserFavoriteService {
                 userFavoriteRepository.save(favorite);
                 
                 logger.info("Lugar {} agregado a favoritos del usuario {}", 
-                           place.getName(), currentUser.getEmail());
+                           place.getName(), authService.getCurrentPrincipal().getEmail());
                 
                 return new FavoriteToggleResult(true, "Agregado a favoritos", PlaceDTO.fromEntity(place));
             }
@@ -164,7 +164,7 @@ public class UserFavoriteService {
             try {
                 userFavoriteRepository.deleteAll(favorites);
                 logger.info("Todos los favoritos del usuario {} han sido eliminados", 
-                           currentUser.getEmail());
+                           authService.getCurrentPrincipal().getEmail());
             } catch (Exception e) {
                 logger.error("Error limpiando favoritos: {}", e.getMessage());
                 throw new RuntimeException("Error interno limpiando favoritos");
@@ -3,12 +3,14 @@ package com.example.demo.service;
 
 import com.example.demo.dto.user.*;
 import com.example.demo.entity.*;
+import com.example.demo.event.UserChangedEvent;
 import com.example.demo.exception.BadRequestException;
 import com.example.demo.exception.ResourceNotFoundException;
 import com.example.demo.repository.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,6 +34,9 @@ public class UserPromotionService {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * PUT /api/users/{userId}/promote - Promover usuario a ADMIN
      */
@@ -46,6 +51,8 @@ public class UserPromotionService {
 
         UserType previousType = userToPromote.getUserType();
         userToPromote.setUserType(request.getToUserType());
+        // Los tokens ya emitidos llevan el rol anterior: se revocan y el usuario vuelve a iniciar sesión
+        userToPromote.incrementTokenVersion();
         
         UserPromotion promotion = new UserPromotion(
             userToPromote, 
@@ -57,6 +64,8 @@ public class UserPromotionService {
 
         UserPromotion savedPromotion = promotionRepository.save(promotion);
         userRepository.save(userToPromote);
+        eventPublisher.publishEvent(new UserChangedEvent(userToPromote.getId(), userToPromote.getEmail(),
+                userToPromote.getTokenVersion()));
         
         logger.info("✅ Usuario {} promovido de {} a {} por {}", 
                    userToPromote.getEmail(), 
@@ -5,6 +5,7 @@ import com.example.demo.dto.route.CreateRouteRequest;
 import com.example.demo.dto.route.CreateRoutePointRequest;
 import com.example.demo.entity.RoutePointType;
 import com.example.demo.exception.RouteValidationException;
+import com.example.demo.geo.GeoUtils;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
@@ -15,11 +16,6 @@ import java.util.stream.Collectors;
 @Component
 public class RouteValidator {
     
-    private static final BigDecimal MIN_LATITUDE = new BigDecimal("-90");
-    private static final BigDecimal MAX_LATITUDE = new BigDecimal("90");
-    private static final BigDecimal MIN_LONGITUDE = new BigDecimal("-180");
-    private static final BigDecimal MAX_LONGITUDE = new BigDecimal("180");
-    
     private static final int MAX_ROUTE_POINTS = 50;
     private static final int MIN_ROUTE_POINTS = 2;
     private static final int MAX_DISTANCE_METERS = 10000; // 10km
@@ -206,14 +202,12 @@ public class RouteValidator {
             throw new RouteValidationException(lngField, "La longitud es obligatoria");
         }
         
-        if (latitude.compareTo(MIN_LATITUDE) < 0 || latitude.compareTo(MAX_LATITUDE) > 0) {
-            throw new RouteValidationException(latField, 
-                "La latitud debe estar entre " + MIN_LATITUDE + " y " + MAX_LATITUDE);
+        if (!GeoUtils.isValidLatitude(latitude.doubleValue())) {
+            throw new RouteValidationException(latField, "La latitud debe estar entre -90 y 90");
         }
         
-        if (longitude.compareTo(MIN_LONGITUDE) < 0 || longitude.compareTo(MAX_LONGITUDE) > 0) {
-            throw new RouteValidationException(lngField, 
-                "La longitud debe estar entre " + MIN_LONGITUDE + " y " + MAX_LONGITUDE);
+        if (!GeoUtils.isValidLongitude(longitude.doubleValue())) {
+            throw new RouteValidationException(lngField, "La longitud debe estar entre -180 y 180");
         }
     }
     
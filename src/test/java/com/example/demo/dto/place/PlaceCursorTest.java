@@ -0,0 +1,82 @@
+package com.example.demo.dto.place;
+
+import com.example.demo.exception.BadRequestException;
+import com.example.demo.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PlaceCursorTest {
+
+    private static final UUID ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    @Test
+    void rankedCursorRoundTrips() {
+        PlaceCursor decoded = PlaceCursor.decode(PlaceCursor.ranked(40, ID).encode());
+
+        assertFalse(decoded.isKeyset());
+        assertEquals(40, decoded.getPosition());
+        assertEquals(ID, decoded.getLastId());
+    }
+
+    @Test
+    void keysetCursorRoundTripsNamesWithSeparatorsAndAccents() {
+        String name = "Sala: 1 – Música/Teatro";
+        PlaceCursor decoded = PlaceCursor.decode(PlaceCursor.keyset(name, ID).encode());
+
+        assertTrue(decoded.isKeyset());
+        assertEquals(name, decoded.getLastName());
+        assertEquals(ID, decoded.getLastId());
+    }
+
+    @Test
+    void startCursorRoundTrips() {
+        PlaceCursor decoded = PlaceCursor.decode(PlaceCursor.start().encode());
+
+        assertTrue(decoded.isKeyset());
+        assertEquals("", decoded.getLastName());
+        assertEquals(new UUID(0L, 0L), decoded.getLastId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String token = PlaceCursor.keyset("¿Qué? ~ >>> ???", ID).encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void malformedCursorsAreBadRequests() {
+        List<String> tokens = List.of(
+                "",
+                "%%%",
+                "no es base64!",
+                raw("sin separadores"),
+                raw("r:" + ID),
+                raw("k:no-es-uuid:Biblioteca"),
+                raw("r:" + ID + ":abc"),
+                raw("r:" + ID + ":-1"),
+                raw("r:" + ID + ":99999999999"),
+                raw("x:" + ID + ":1"));
+
+        GlobalExceptionHandler handler = new GlobalExceptionHandler();
+        for (String token : tokens) {
+            BadRequestException e = assertThrows(BadRequestException.class, () -> PlaceCursor.decode(token), token);
+            assertEquals(HttpStatus.BAD_REQUEST, handler.handleBadRequestException(e, null).getStatusCode());
+        }
+        assertThrows(BadRequestException.class, () -> PlaceCursor.decode(null));
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
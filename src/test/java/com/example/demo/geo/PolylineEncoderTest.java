@@ -0,0 +1,78 @@
+package com.example.demo.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PolylineEncoderTest {
+
+    @Test
+    void encodesReferenceVector() {
+        // Ejemplo de la documentación del formato de Google
+        String encoded = PolylineEncoder.encode(
+                new double[] { 38.5, 40.7, 43.252 },
+                new double[] { -120.2, -120.95, -126.453 });
+
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", encoded);
+    }
+
+    @Test
+    void encodesNegativeCoordinatesAndDeltas() {
+        String encoded = PolylineEncoder.encode(new double[] { -0.2, -0.21 }, new double[] { -78.5, -78.49 });
+
+        assertEquals("~`f@~_c~Mn}@o}@", encoded);
+    }
+
+    @Test
+    void encodesExtremeCoordinates() {
+        String encoded = PolylineEncoder.encode(new double[] { -90, 90 }, new double[] { -180, 180 });
+
+        assertEquals("~bidP~fsia@_gsia@_ogtcA", encoded);
+        assertArrayEquals(new long[] { -9000000, -18000000, 18000000, 36000000 }, decode(encoded));
+    }
+
+    @Test
+    void roundsToNearestFifthDecimalWithHalfUp() {
+        // 0.000004 → 0 y 0.000005 → 1
+        assertEquals("?A", PolylineEncoder.encode(new double[] { 0.000004 }, new double[] { 0.000005 }));
+        // -0.000005 → 0 (Math.round sube en el medio) y -0.000006 → -1
+        assertEquals("?@", PolylineEncoder.encode(new double[] { -0.000005 }, new double[] { -0.000006 }));
+    }
+
+    @Test
+    void deltasAreTakenFromRoundedValues() {
+        double[] latitudes = { -0.210004, -0.210006, -0.209996 };
+        double[] longitudes = { -78.489994, -78.490004, -78.490006 };
+
+        assertArrayEquals(new long[] { -21000, -7848999, -1, -1, 1, -1 }, decode(PolylineEncoder.encode(latitudes, longitudes)));
+    }
+
+    @Test
+    void usesShorterArrayAndEncodesEmptyInput() {
+        assertEquals("", PolylineEncoder.encode(new double[0], new double[0]));
+        assertEquals(PolylineEncoder.encode(new double[] { 38.5 }, new double[] { -120.2 }),
+                PolylineEncoder.encode(new double[] { 38.5, 40.7 }, new double[] { -120.2 }));
+    }
+
+    // Deltas decodificados (en unidades de 1e-5 grados), en el orden en que se escribieron
+    private static long[] decode(String encoded) {
+        List<Long> values = new ArrayList<>();
+        int index = 0;
+        while (index < encoded.length()) {
+            long result = 0;
+            int shift = 0;
+            int b;
+            do {
+                b = encoded.charAt(index++) - 63;
+                result |= (long) (b & 0x1f) << shift;
+                shift += 5;
+            } while (b >= 0x20);
+            values.add((result & 1) != 0 ? ~(result >> 1) : result >> 1);
+        }
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+}
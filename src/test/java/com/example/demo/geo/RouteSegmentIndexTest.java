@@ -0,0 +1,172 @@
+package com.example.demo.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouteSegmentIndexTest {
+
+    // En el ecuador la proyección local usa la misma escala en ambos ejes
+    private static final double METERS_PER_DEGREE = GeoUtils.KM_PER_DEGREE * 1000.0;
+
+    // Unidad en grados potencia de 2: las proyecciones y los empates son exactos
+    private static final double UNIT = Math.scalb(1.0, -14);
+
+    private static final double EPSILON = 1e-6;
+
+    @Test
+    void singlePointRouteSnapsToThatPoint() {
+        RouteSegmentIndex index = new RouteSegmentIndex(new double[] { 0 }, new double[] { 0 });
+
+        RouteSegmentIndex.Snap snap = index.snap(3 * UNIT, 4 * UNIT);
+
+        assertEquals(1, index.segmentCount());
+        assertEquals(0, index.totalMeters());
+        assertEquals(0, snap.segmentIndex());
+        assertEquals(0, snap.fraction());
+        assertEquals(0, snap.latitude(), EPSILON);
+        assertEquals(0, snap.longitude(), EPSILON);
+        assertEquals(5 * UNIT * METERS_PER_DEGREE, snap.distanceMeters(), EPSILON);
+        assertEquals(0, snap.traveledMeters());
+    }
+
+    @Test
+    void emptyRouteIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new RouteSegmentIndex(new double[0], new double[0]));
+    }
+
+    @Test
+    void zeroLengthSegmentsDoNotBreakSnapping() {
+        // Puntos repetidos al inicio y al medio
+        double[] lats = { 0, 0, 0, 0, 0 };
+        double[] lngs = { 0, 0, 4 * UNIT, 4 * UNIT, 8 * UNIT };
+        RouteSegmentIndex index = new RouteSegmentIndex(lats, lngs);
+
+        RouteSegmentIndex.Snap atStart = index.snap(UNIT, 0);
+        assertEquals(0, atStart.segmentIndex());
+        assertEquals(0, atStart.traveledMeters());
+
+        RouteSegmentIndex.Snap atRepeated = index.snap(UNIT, 4 * UNIT);
+        // Empatan los segmentos 1, 2 y 3: gana el primero del recorrido
+        assertEquals(1, atRepeated.segmentIndex());
+        assertEquals(1, atRepeated.fraction());
+        assertEquals(4 * UNIT * METERS_PER_DEGREE, atRepeated.traveledMeters(), EPSILON);
+
+        RouteSegmentIndex.Snap afterRepeated = index.snap(0, 6 * UNIT);
+        assertEquals(3, afterRepeated.segmentIndex());
+        assertEquals(0.5, afterRepeated.fraction(), EPSILON);
+        assertEquals(6 * UNIT * METERS_PER_DEGREE, afterRepeated.traveledMeters(), EPSILON);
+    }
+
+    @Test
+    void projectionsPastTheEndsClampToTheRoute() {
+        RouteSegmentIndex index = new RouteSegmentIndex(new double[] { 0, 0, 0 }, new double[] { 0, 4 * UNIT, 8 * UNIT });
+
+        RouteSegmentIndex.Snap beforeStart = index.snap(0, -3 * UNIT);
+        assertEquals(0, beforeStart.segmentIndex());
+        assertEquals(0, beforeStart.fraction());
+        assertEquals(0, beforeStart.traveledMeters());
+        assertEquals(3 * UNIT * METERS_PER_DEGREE, beforeStart.distanceMeters(), EPSILON);
+
+        RouteSegmentIndex.Snap afterEnd = index.snap(UNIT, 10 * UNIT);
+        assertEquals(1, afterEnd.segmentIndex());
+        assertEquals(1, afterEnd.fraction());
+        assertEquals(index.totalMeters(), afterEnd.traveledMeters(), EPSILON);
+        assertEquals(8 * UNIT, afterEnd.longitude(), EPSILON);
+    }
+
+    @Test
+    void equalDistanceTieReturnsEarliestSegmentAcrossSubtrees() {
+        // Ida por y = 0, vuelta por y = 4 pasando sobre el mismo punto: la posición (4, 2)
+        // queda a 2 unidades de ambos tramos. La caja de la vuelta contiene la posición y se
+        // visita primero, pero el segmento de ida (anterior) debe ganar el empate.
+        double[][] points = {
+                { 0, 0 }, { 2, 0 }, { 4, 0 }, { 6, 0 }, { 8, 0 }, { 20, 0 },
+                { 20, 4 }, { 8, 4 }, { 6, 4 }, { 4, 4 }, { 2, 4 }, { 0, 4 } };
+        RouteSegmentIndex index = index(points);
+
+        RouteSegmentIndex.Snap snap = index.snap(2 * UNIT, 4 * UNIT);
+
+        assertEquals(1, snap.segmentIndex());
+        assertEquals(1, snap.fraction());
+        assertEquals(2 * UNIT * METERS_PER_DEGREE, snap.distanceMeters(), EPSILON);
+    }
+
+    @Test
+    void traveledMetersAccumulatesAlongTheRoute() {
+        // Tramos de 3, 4 y 12 unidades: horizontal, vertical y horizontal
+        double[][] points = { { 0, 0 }, { 3, 0 }, { 3, 4 }, { 15, 4 } };
+        RouteSegmentIndex index = index(points);
+
+        assertEquals(19 * UNIT * METERS_PER_DEGREE, index.totalMeters(), EPSILON);
+        assertEquals(3 * UNIT * METERS_PER_DEGREE, index.cumulativeMeters(1), EPSILON);
+        assertEquals(7 * UNIT * METERS_PER_DEGREE, index.cumulativeMeters(2), EPSILON);
+        // Índices fuera de rango se acotan al final
+        assertEquals(index.totalMeters(), index.cumulativeMeters(99), EPSILON);
+
+        RouteSegmentIndex.Snap snap = index.snap(5 * UNIT, 9 * UNIT);
+        assertEquals(2, snap.segmentIndex());
+        assertEquals(0.5, snap.fraction(), EPSILON);
+        assertEquals(13 * UNIT * METERS_PER_DEGREE, snap.traveledMeters(), EPSILON);
+        assertEquals(4 * UNIT, snap.latitude(), EPSILON);
+        assertEquals(9 * UNIT, snap.longitude(), EPSILON);
+    }
+
+    @Test
+    void matchesBruteForceOnRandomRoutes() {
+        Random random = new Random(42);
+        for (int route = 0; route < 50; route++) {
+            int n = 1 + random.nextInt(60);
+            double[][] points = new double[n][2];
+            for (int i = 0; i < n; i++) {
+                points[i][0] = random.nextInt(64);
+                points[i][1] = random.nextInt(64);
+            }
+            RouteSegmentIndex index = index(points);
+
+            for (int query = 0; query < 50; query++) {
+                double qx = random.nextInt(80) - 8;
+                double qy = random.nextInt(80) - 8;
+                RouteSegmentIndex.Snap snap = index.snap(qy * UNIT, qx * UNIT);
+
+                // En un vértice compartido el redondeo puede elegir cualquiera de los dos
+                // segmentos, así que se compara la distancia y no el índice
+                double expected = Math.sqrt(bruteForceNearestSquared(points, qx, qy)) * UNIT * METERS_PER_DEGREE;
+                assertEquals(expected, snap.distanceMeters(), EPSILON, "ruta " + route + ", consulta " + query);
+            }
+        }
+    }
+
+    // Puntos como {x, y} en unidades
+    private static RouteSegmentIndex index(double[][] points) {
+        double[] lats = new double[points.length];
+        double[] lngs = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            lngs[i] = points[i][0] * UNIT;
+            lats[i] = points[i][1] * UNIT;
+        }
+        return new RouteSegmentIndex(lats, lngs);
+    }
+
+    // Distancia al cuadrado (en unidades) al segmento más cercano, probando todos
+    private static double bruteForceNearestSquared(double[][] points, double px, double py) {
+        if (points.length == 1) {
+            double cx = points[0][0] - px, cy = points[0][1] - py;
+            return cx * cx + cy * cy;
+        }
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i + 1 < points.length; i++) {
+            double ax = points[i][0], ay = points[i][1];
+            double dx = points[i + 1][0] - ax, dy = points[i + 1][1] - ay;
+            double lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0 : ((px - ax) * dx + (py - ay) * dy) / lengthSquared;
+            t = Math.max(0, Math.min(1, t));
+            double cx = ax + t * dx - px, cy = ay + t * dy - py;
+            bestDistance = Math.min(bestDistance, cx * cx + cy * cy);
+        }
+        return bestDistance;
+    }
+}
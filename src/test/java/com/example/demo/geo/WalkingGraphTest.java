@@ -0,0 +1,162 @@
+package com.example.demo.geo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WalkingGraphTest {
+
+    // En el ecuador un metro mide lo mismo en latitud y longitud
+    private static final double METERS_PER_DEGREE = GeoUtils.KM_PER_DEGREE * 1000.0;
+
+    private static final double EPSILON = 1e-6;
+
+    private static final UUID LIBRARY = UUID.randomUUID();
+    private static final UUID CAFETERIA = UUID.randomUUID();
+    private static final UUID ANNEX = UUID.randomUUID();
+
+    /*
+     * Coordenadas {x, y} en metros:
+     *
+     *                 (100,100) ← cafetería
+     *                     |
+     *  (0,0) ------- (100,0) ------- (200,0) ← biblioteca
+     *                     |              |
+     *                 (100,-100)     (200,50) ← cafetería (segunda entrada)
+     *
+     *  (1000,1000) ------- (1100,1000) ← anexo, sin conexión
+     *
+     * La ruta de la cafetería cruza por (100.5, 0), a medio metro del nodo de la biblioteca.
+     */
+    private static final List<WalkingGraph.Polyline> CAMPUS = List.of(
+            polyline(LIBRARY, new double[][] { { 0, 0 }, { 100, 0 }, { 200, 0 } }),
+            polyline(CAFETERIA, new double[][] { { 100, -100 }, { 100.5, 0 }, { 100, 100 } }),
+            polyline(CAFETERIA, new double[][] { { 200, 0 }, { 200, 0 }, { 200, 50 } }),
+            polyline(ANNEX, new double[][] { { 1000, 1000 }, { 1100, 1000 } }));
+
+    @Test
+    void routesCrossingWithinToleranceShareANode() {
+        WalkingGraph graph = new WalkingGraph(CAMPUS, 1.0);
+
+        // 3 + 2 + 1 + 2 nodos; el punto repetido no genera arista
+        assertEquals(8, graph.nodeCount());
+        assertEquals(6, graph.edgeCount());
+
+        int start = graph.nearestNode(0, 0, 1.0);
+        WalkingGraph.Path path = graph.shortestPath(0, 0, start, new int[] { node(graph, 100, 100) });
+
+        assertNotNull(path);
+        assertEquals(200, path.graphMeters(), EPSILON);
+        // Origen, (0,0), cruce, (100,100)
+        assertEquals(4, path.latitudes().length);
+        assertEquals(meters(100), path.longitudes()[2], EPSILON);
+        assertEquals(0, path.latitudes()[2], EPSILON);
+    }
+
+    @Test
+    void routesCrossingBeyondToleranceStaySeparate() {
+        WalkingGraph graph = new WalkingGraph(CAMPUS, 0.1);
+
+        assertEquals(9, graph.nodeCount());
+        int start = graph.nearestNode(0, 0, 1.0);
+        assertNull(graph.shortestPath(0, 0, start, new int[] { node(graph, 100, 100) }));
+    }
+
+    @Test
+    void disconnectedGoalHasNoPath() {
+        WalkingGraph graph = new WalkingGraph(CAMPUS, 1.0);
+        int start = graph.nearestNode(0, 0, 1.0);
+
+        assertNull(graph.shortestPath(0, 0, start, graph.destinationNodes(ANNEX)));
+
+        double[] distances = graph.distancesFrom(start);
+        assertEquals(Double.POSITIVE_INFINITY, distances[node(graph, 1000, 1000)]);
+        assertEquals(Double.POSITIVE_INFINITY, distances[node(graph, 1100, 1000)]);
+        assertEquals(200, distances[node(graph, 100, -100)], EPSILON);
+    }
+
+    @Test
+    void multipleGoalNodesPickTheNearestReachable() {
+        WalkingGraph graph = new WalkingGraph(CAMPUS, 1.0);
+        int[] goals = graph.destinationNodes(CAFETERIA);
+        assertEquals(2, goals.length);
+
+        // Desde (0,0): 200 m hasta (100,100) contra 250 m hasta (200,50)
+        WalkingGraph.Path fromWest = graph.shortestPath(0, 0, node(graph, 0, 0), goals);
+        assertEquals(200, fromWest.graphMeters(), EPSILON);
+        assertEquals(meters(100), fromWest.latitudes()[fromWest.latitudes().length - 1], EPSILON);
+
+        // Desde (200,0): 50 m hasta (200,50) contra 200 m hasta (100,100)
+        WalkingGraph.Path fromEast = graph.shortestPath(0, meters(200), node(graph, 200, 0), goals);
+        assertEquals(50, fromEast.graphMeters(), EPSILON);
+        assertEquals(meters(50), fromEast.latitudes()[fromEast.latitudes().length - 1], EPSILON);
+
+        // Un nodo que ya es destino devuelve un camino sin aristas
+        WalkingGraph.Path atGoal = graph.shortestPath(meters(50), meters(200), node(graph, 200, 50), goals);
+        assertEquals(0, atGoal.graphMeters());
+        assertEquals(2, atGoal.latitudes().length);
+    }
+
+    @Test
+    void routesEndingOnTheSameNodeShareOneGoal() {
+        UUID placeId = UUID.randomUUID();
+        WalkingGraph graph = new WalkingGraph(List.of(
+                polyline(placeId, new double[][] { { 0, 0 }, { 50, 0 } }),
+                polyline(placeId, new double[][] { { 50, 60 }, { 50, 0.5 } })), 1.0);
+
+        assertArrayEquals(new int[] { node(graph, 50, 0) }, graph.destinationNodes(placeId));
+        assertTrue(graph.hasDestination(placeId));
+        assertFalse(graph.hasDestination(UUID.randomUUID()));
+        assertEquals(0, graph.destinationNodes(UUID.randomUUID()).length);
+    }
+
+    @Test
+    void accessAndEgressAddToTotal() {
+        WalkingGraph graph = new WalkingGraph(CAMPUS, 1.0);
+        int start = graph.nearestNode(meters(3), 0, 5.0);
+        assertEquals(node(graph, 0, 0), start);
+        assertEquals(-1, graph.nearestNode(meters(3), 0, 2.0));
+
+        WalkingGraph.Path path = graph.shortestPath(meters(3), 0, start, new int[] { node(graph, 200, 0) })
+                .withEgress(meters(4), meters(200), 4);
+
+        assertEquals(3, path.accessMeters(), EPSILON);
+        assertEquals(200, path.graphMeters(), EPSILON);
+        assertEquals(207, path.totalMeters(), EPSILON);
+        assertEquals(meters(4), path.latitudes()[path.latitudes().length - 1]);
+    }
+
+    @Test
+    void emptyGraphHasNoNodesOrPaths() {
+        assertEquals(0, WalkingGraph.EMPTY.nodeCount());
+        assertEquals(0, WalkingGraph.EMPTY.edgeCount());
+        assertEquals(-1, WalkingGraph.EMPTY.nearestNode(0, 0, 1000));
+        assertTrue(WalkingGraph.EMPTY.destinationIds().isEmpty());
+    }
+
+    private static WalkingGraph.Polyline polyline(UUID destinationId, double[][] points) {
+        double[] lats = new double[points.length];
+        double[] lngs = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            lngs[i] = meters(points[i][0]);
+            lats[i] = meters(points[i][1]);
+        }
+        return new WalkingGraph.Polyline(UUID.randomUUID(), destinationId, lats, lngs);
+    }
+
+    private static double meters(double meters) {
+        return meters / METERS_PER_DEGREE;
+    }
+
+    private static int node(WalkingGraph graph, double x, double y) {
+        return graph.nearestNode(meters(y), meters(x), 1.0);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.search;
+
+import com.example.demo.entity.Place;
+import com.example.demo.event.PlaceChangedEvent;
+import com.example.demo.repository.PlaceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PlaceSearchIndexTest {
+
+    private final List<Place> places = new ArrayList<>();
+    private PlaceRepository placeRepository;
+    private PlaceSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        placeRepository = mock(PlaceRepository.class);
+        when(placeRepository.findAll()).thenReturn(places);
+        index = new PlaceSearchIndex();
+        ReflectionTestUtils.setField(index, "placeRepository", placeRepository);
+    }
+
+    @Test
+    void nameMatchRanksAboveDescriptionMatch() {
+        Place study = place("Sala de estudio", null, "Junto a la biblioteca");
+        Place library = place("Biblioteca Central", null, null);
+
+        assertEquals(List.of(library.getId(), study.getId()), index.search("biblioteca", 10));
+    }
+
+    @Test
+    void exactTermRanksAbovePrefix() {
+        Place aulas = place("Aulas", null, null);
+        Place aula = place("Aula", null, null);
+
+        assertEquals(List.of(aula.getId(), aulas.getId()), index.search("aula", 10));
+    }
+
+    @Test
+    void placesCoveringMoreTermsRankFirst() {
+        Place physics = place("Laboratorio de Física", null, null);
+        Place chemistry = place("Laboratorio de Química", null, null);
+
+        assertEquals(List.of(chemistry.getId(), physics.getId()), index.search("laboratorio quimica", 10));
+    }
+
+    @Test
+    void limitKeepsTheMostRelevant() {
+        place("Sala de estudio", null, "Junto a la biblioteca");
+        Place library = place("Biblioteca Central", null, null);
+
+        assertEquals(List.of(library.getId()), index.search("biblioteca", 1));
+        assertTrue(index.search("biblioteca", 0).isEmpty());
+        assertEquals(2, index.searchAll("biblioteca").size());
+    }
+
+    @Test
+    void accentsAndCaseAreIgnoredOnBothSides() {
+        Place cafeteria = place("Cafetería", null, null);
+        Place music = place("Sala de musica", null, null);
+
+        assertEquals(List.of(cafeteria.getId()), index.search("CAFETERIA", 10));
+        assertEquals(List.of(music.getId()), index.search("Música", 10));
+    }
+
+    @Test
+    void roomCodeIsFoundWithAndWithoutSeparator() {
+        Place room = place("Aula magna", "A-101", null);
+
+        assertEquals(List.of(room.getId()), index.search("a101", 10));
+        assertEquals(List.of(room.getId()), index.search("A-101", 10));
+    }
+
+    @Test
+    void typosAreToleratedOnlyForTermsWithTheSameFirstLetter() {
+        Place library = place("Biblioteca", null, null);
+        Place house = place("Casa", null, null);
+        place("Sol", null, null);
+
+        assertEquals(List.of(library.getId()), index.search("biblioteka", 10));
+        assertEquals(List.of(library.getId()), index.search("bibliotca", 10));
+        assertEquals(List.of(house.getId()), index.search("cosa", 10));
+        // Misma distancia de edición, pero cambia la primera letra
+        assertTrue(index.search("xiblioteca", 10).isEmpty());
+        assertTrue(index.search("kasa", 10).isEmpty());
+        // Términos de menos de 4 letras no admiten errores
+        assertTrue(index.search("sal", 10).isEmpty());
+    }
+
+    @Test
+    void typosAreNotUsedWhenAnExactOrPrefixMatchExists() {
+        place("Cajas", null, null);
+        Place houses = place("Casas", null, null);
+
+        // "cajas" está a una edición de "casas", pero ya hay coincidencia exacta
+        assertEquals(List.of(houses.getId()), index.search("casas", 10));
+    }
+
+    @Test
+    void blankQueryReturnsNothing() {
+        place("Biblioteca", null, null);
+
+        assertTrue(index.search("   ", 10).isEmpty());
+        assertTrue(index.search(null, 10).isEmpty());
+    }
+
+    @Test
+    void changesAreAppliedIncrementally() {
+        Place library = place("Biblioteca", null, null);
+        assertEquals(List.of(library.getId()), index.search("biblioteca", 10));
+
+        Place gym = newPlace("Gimnasio", null, null);
+        index.onPlaceChanged(PlaceChangedEvent.saved(gym));
+        assertEquals(List.of(gym.getId()), index.search("gimnasio", 10));
+
+        library.setName("Mediateca");
+        index.onPlaceChanged(PlaceChangedEvent.updated(library, PlaceChangedEvent.CatalogKeys.of(library)));
+        assertTrue(index.search("biblioteca", 10).isEmpty());
+        assertEquals(List.of(library.getId()), index.search("mediateca", 10));
+
+        index.onPlaceChanged(PlaceChangedEvent.deleted(gym.getId(), PlaceChangedEvent.CatalogKeys.of(gym)));
+        assertTrue(index.search("gimnasio", 10).isEmpty());
+
+        // El índice se carga una sola vez
+        verify(placeRepository, times(1)).findAll();
+    }
+
+    // Lugar guardado en el repositorio, visible en la primera carga del índice
+    private Place place(String name, String roomCode, String description) {
+        Place place = newPlace(name, roomCode, description);
+        places.add(place);
+        return place;
+    }
+
+    private static Place newPlace(String name, String roomCode, String description) {
+        Place place = new Place();
+        place.setId(UUID.randomUUID());
+        place.setName(name);
+        place.setRoomCode(roomCode);
+        place.setDescription(description);
+        return place;
+    }
+}
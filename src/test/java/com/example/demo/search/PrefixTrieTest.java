@@ -0,0 +1,102 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixTrieTest {
+
+    @Test
+    void findsValuesByExactKeyAndPrefix() {
+        PrefixTrie<Integer> trie = new PrefixTrie<>();
+        trie.insert("aula", 1);
+
+        assertEquals(List.of(1), trie.findByPrefix("aula", 10));
+        assertEquals(List.of(1), trie.findByPrefix("a", 10));
+        assertTrue(trie.findByPrefix("b", 10).isEmpty());
+    }
+
+    @Test
+    void splitsEdgesWhereKeysDiverge() {
+        PrefixTrie<Integer> trie = new PrefixTrie<>();
+        trie.insert("biblioteca", 1);
+        trie.insert("bibliografia", 2);
+        // Clave que termina en medio de la arista ya partida
+        trie.insert("bib", 3);
+
+        assertEquals(3, trie.size());
+        // Primero la clave más corta, luego los hijos en orden de carácter ('g' < 't')
+        assertEquals(List.of(3, 2, 1), trie.findByPrefix("bib", 10));
+        assertEquals(List.of(2, 1), trie.findByPrefix("biblio", 10));
+        assertEquals(List.of(1), trie.findByPrefix("bibliot", 10));
+        assertEquals(List.of(2), trie.findByPrefix("bibliografia", 10));
+        assertTrue(trie.findByPrefix("bibliox", 10).isEmpty());
+    }
+
+    @Test
+    void insertingLongerKeyExtendsExistingLeaf() {
+        PrefixTrie<Integer> trie = new PrefixTrie<>();
+        trie.insert("lab", 1);
+        trie.insert("laboratorio", 2);
+
+        assertEquals(List.of(1, 2), trie.findByPrefix("la", 10));
+        assertEquals(List.of(2), trie.findByPrefix("labo", 10));
+    }
+
+    @Test
+    void prefixEndingMidLabelMatches() {
+        PrefixTrie<Integer> trie = new PrefixTrie<>();
+        trie.insert("cafeteria", 1);
+
+        assertEquals(List.of(1), trie.findByPrefix("caf", 10));
+        assertEquals(List.of(1), trie.findByPrefix("cafeteria", 10));
+        // Diverge dentro de la arista o sigue más allá de la clave
+        assertTrue(trie.findByPrefix("cafx", 10).isEmpty());
+        assertTrue(trie.findByPrefix("cafeterias", 10).isEmpty());
+    }
+
+    @Test
+    void duplicateValuesAreStoredAndReturnedOnce() {
+        PrefixTrie<String> trie = new PrefixTrie<>();
+        trie.insert("aula", "x");
+        trie.insert("aula", "x");
+        assertEquals(1, trie.size());
+
+        // El mismo valor bajo otra clave cuenta, pero la búsqueda lo devuelve una vez
+        trie.insert("aulas", "x");
+        assertEquals(2, trie.size());
+        assertEquals(List.of("x"), trie.findByPrefix("aula", 10));
+
+        // Varios valores bajo la misma clave conservan el orden de inserción
+        trie.insert("aula", "y");
+        assertEquals(List.of("x", "y"), trie.findByPrefix("aula", 10));
+    }
+
+    @Test
+    void limitCountsDistinctValues() {
+        PrefixTrie<Integer> trie = new PrefixTrie<>();
+        trie.insert("a", 1);
+        trie.insert("ab", 1);
+        trie.insert("abc", 2);
+        trie.insert("abd", 3);
+
+        assertEquals(List.of(1, 2), trie.findByPrefix("a", 2));
+        assertEquals(List.of(1, 2, 3), trie.findByPrefix("a", 10));
+        assertTrue(trie.findByPrefix("a", 0).isEmpty());
+    }
+
+    @Test
+    void emptyKeysAndPrefixesAreIgnored() {
+        PrefixTrie<Integer> trie = new PrefixTrie<>();
+        trie.insert("", 1);
+        trie.insert(null, 2);
+        trie.insert("sala", 3);
+
+        assertEquals(1, trie.size());
+        assertTrue(trie.findByPrefix("", 10).isEmpty());
+        assertTrue(trie.findByPrefix(null, 10).isEmpty());
+    }
+}
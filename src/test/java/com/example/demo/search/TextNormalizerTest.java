@@ -0,0 +1,43 @@
+package com.example.demo.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextNormalizerTest {
+
+    @Test
+    void foldRemovesAccentsAndCase() {
+        assertEquals("cafeteria", TextNormalizer.fold("Cafetería"));
+        assertEquals("pinguino", TextNormalizer.fold("Pingüino"));
+        assertEquals("indice", TextNormalizer.fold("ÍNDICE"));
+        assertEquals("ano academico", TextNormalizer.fold("Año Académico"));
+        // Letras precompuestas y descompuestas dan el mismo resultado
+        assertEquals("exito", TextNormalizer.fold("\u00e9xito"));
+        assertEquals("exito", TextNormalizer.fold("e\u0301xito"));
+    }
+
+    @Test
+    void foldHandlesMissingText() {
+        assertEquals("", TextNormalizer.fold(null));
+        assertEquals("", TextNormalizer.fold(""));
+    }
+
+    @Test
+    void tokenizeSplitsOnNonAlphanumerics() {
+        assertEquals(List.of("a", "101", "edificio", "3"), TextNormalizer.tokenize("A-101, Edificio 3"));
+        assertEquals(List.of("sala", "de", "musica"), TextNormalizer.tokenize("  Sala de   Música! "));
+        assertTrue(TextNormalizer.tokenize(null).isEmpty());
+        assertTrue(TextNormalizer.tokenize(" - / ").isEmpty());
+    }
+
+    @Test
+    void compactJoinsTokens() {
+        assertEquals("a101", TextNormalizer.compact("A-101"));
+        assertEquals("lab2b", TextNormalizer.compact("Lab 2 / B"));
+        assertEquals("", TextNormalizer.compact(null));
+    }
+}
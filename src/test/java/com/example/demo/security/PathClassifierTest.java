@@ -0,0 +1,140 @@
+package com.example.demo.security;
+
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathClassifierTest {
+
+    private static final String ID = "123e4567-e89b-12d3-a456-426614174000";
+    private static final String UUID_REGEX = "[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}";
+
+    // Reglas del filtro antes del trie (conjunto exacto + regex), más /auth/refresh agregado después
+    private static final Set<String> OLD_PUBLIC_EXACT_PATHS = Set.of(
+            "/auth/login", "/auth/register", "/auth/refresh", "/auth/health",
+            "/auth/validate-email", "/auth/validate-student-id",
+            "/places", "/places/search", "/places/autocomplete", "/places/nearby", "/places/type",
+            "/places/available", "/places/building", "/places/what3words",
+            "/routes/destinations", "/routes/nearest", "/routes/path", "/routes/matrix",
+            "/routes/health", "/routes/proposals/health",
+            "/navigation/health", "/users/health", "/health");
+
+    private static final List<String> OLD_PUBLIC_PATTERNS = List.of(
+            "^/places/" + UUID_REGEX + "$",
+            "^/routes/to/" + UUID_REGEX + "$",
+            "^/routes/" + UUID_REGEX + "/points$",
+            "^/routes/" + UUID_REGEX + "/details$");
+
+    private static final List<String> OLD_PROTECTED_PATTERNS = List.of(
+            "^/routes/" + UUID_REGEX + "/rating$",
+            "^/routes/" + UUID_REGEX + "/my-rating$");
+
+    private static final List<String> PATHS = List.of(
+            "/auth/login", "/auth/refresh", "/auth/me", "/auth/login/",
+            "/places", "/places/", "/places/search", "/places/nearby", "/places/favorites",
+            "/places/" + ID, "/places/" + ID.toUpperCase(), "/places/" + ID + "/",
+            "/places/" + ID.substring(1), "/places/" + ID + "0", "/places/" + ID.replace('-', '_'),
+            "/places/" + ID.replace('e', 'g'), "/places/" + ID + "/reports",
+            "/routes", "/routes/", "/routes/path", "/routes/matrix", "/routes/proposals",
+            "/routes/proposals/health", "/routes/proposals/health/",
+            "/routes/to/" + ID, "/routes/to/" + ID + "/", "/routes/to/",
+            "/routes/" + ID, "/routes/" + ID + "/points", "/routes/" + ID + "/points/",
+            "/routes/" + ID + "/details", "/routes/" + ID + "/rating", "/routes/" + ID + "/my-rating",
+            "/routes/" + ID + "/rating/", "/routes//points",
+            "/navigation/health", "/navigation/" + ID + "/progress", "/navigation/start",
+            "/users/health", "/users/me", "/health", "/health/", "/", "", "//health");
+
+    @Test
+    void filterMatchesPreviousExactSetAndRegexRules() throws ServletException {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(null, null);
+
+        for (String path : PATHS) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + path);
+            request.setContextPath("/api");
+            assertEquals(isPublicByOldRules(path), filter.shouldNotFilter(request), path);
+        }
+    }
+
+    @Test
+    void filterIgnoresMissingContextPath() throws ServletException {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(null, null);
+
+        assertTrue(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/places/" + ID)));
+        assertFalse(filter.shouldNotFilter(new MockHttpServletRequest("GET", "/routes/" + ID + "/rating")));
+    }
+
+    @Test
+    void uuidSegmentRequiresCanonicalForm() {
+        PathClassifier classifier = new PathClassifier(List.of("/a/{uuid}/b"), List.of());
+
+        assertTrue(classifier.isPublic("/a/" + ID + "/b", 0));
+        assertTrue(classifier.isPublic("/a/" + ID.toUpperCase() + "/b", 0));
+        assertFalse(classifier.isPublic("/a/" + ID.replace("-", "") + "/b", 0));
+        assertFalse(classifier.isPublic("/a/" + ID.substring(0, 35) + "x/b", 0));
+        // Dígitos no ASCII no cuentan como hexadecimales
+        assertFalse(classifier.isPublic("/a/" + ID.replace('1', '١') + "/b", 0));
+        assertFalse(classifier.isPublic("/a/" + ID, 0));
+    }
+
+    @Test
+    void trailingSlashIsADifferentPath() {
+        PathClassifier classifier = new PathClassifier(List.of("/places", "/places/{uuid}"), List.of());
+
+        assertTrue(classifier.isPublic("/places", 0));
+        assertFalse(classifier.isPublic("/places/", 0));
+        assertFalse(classifier.isPublic("/places/" + ID + "/", 0));
+    }
+
+    @Test
+    void literalSegmentWinsOverUuidWildcard() {
+        String literalUuidShaped = "00000000-0000-0000-0000-000000000000";
+        PathClassifier classifier = new PathClassifier(
+                List.of("/routes/{uuid}/points"), List.of("/routes/" + literalUuidShaped + "/points"));
+
+        assertTrue(classifier.isPublic("/routes/" + ID + "/points", 0));
+        assertFalse(classifier.isPublic("/routes/" + literalUuidShaped + "/points", 0));
+    }
+
+    @Test
+    void protectedTemplateWinsOverPublicInEitherOrder() {
+        PathClassifier publicFirst = new PathClassifier(List.of("/routes/{uuid}/rating"), List.of("/routes/{uuid}/rating"));
+        assertFalse(publicFirst.isPublic("/routes/" + ID + "/rating", 0));
+
+        PathClassifier duplicatedPublic = new PathClassifier(
+                List.of("/routes/{uuid}/rating", "/routes/{uuid}/rating"), List.of("/routes/{uuid}/rating"));
+        assertFalse(duplicatedPublic.isPublic("/routes/" + ID + "/rating", 0));
+    }
+
+    @Test
+    void offsetSkipsContextPathWithoutSubstring() {
+        PathClassifier classifier = new PathClassifier(List.of("/health"), List.of());
+
+        assertTrue(classifier.isPublic("/api/health", 4));
+        assertFalse(classifier.isPublic("/api/health", 3));
+        assertFalse(classifier.isPublic("/api", 4));
+    }
+
+    @Test
+    void templatesMustStartWithSlash() {
+        assertThrows(IllegalArgumentException.class, () -> new PathClassifier(List.of("health"), List.of()));
+    }
+
+    private static boolean isPublicByOldRules(String path) {
+        for (String pattern : OLD_PROTECTED_PATTERNS) {
+            if (path.matches(pattern)) return false;
+        }
+        if (OLD_PUBLIC_EXACT_PATHS.contains(path)) return true;
+        for (String pattern : OLD_PUBLIC_PATTERNS) {
+            if (path.matches(pattern)) return true;
+        }
+        return false;
+    }
+}
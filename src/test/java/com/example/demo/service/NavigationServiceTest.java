@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.route.RouteInstructionDTO;
+import com.example.demo.entity.RoutePointType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NavigationServiceTest {
+
+    private static final List<RouteInstructionDTO> INSTRUCTIONS = List.of(
+            instruction(0, RoutePointType.START),
+            instruction(3, RoutePointType.TURN),
+            instruction(4, RoutePointType.TURN),
+            instruction(9, RoutePointType.END));
+
+    @Test
+    void noInstructionsMeansNoNextInstruction() {
+        assertNull(NavigationService.findNextInstruction(List.of(), 0));
+    }
+
+    @Test
+    void instructionAtCurrentSegmentStartIsAlreadyBehind() {
+        // El segmento 0 empieza en el punto 0: la instrucción de inicio ya quedó atrás
+        assertEquals(3, NavigationService.findNextInstruction(INSTRUCTIONS, 0).getIndex());
+    }
+
+    @Test
+    void instructionAtCurrentSegmentEndIsNext() {
+        // El segmento 2 termina en el punto 3
+        assertEquals(3, NavigationService.findNextInstruction(INSTRUCTIONS, 2).getIndex());
+        assertEquals(4, NavigationService.findNextInstruction(INSTRUCTIONS, 3).getIndex());
+        assertEquals(9, NavigationService.findNextInstruction(INSTRUCTIONS, 4).getIndex());
+        assertEquals(9, NavigationService.findNextInstruction(INSTRUCTIONS, 8).getIndex());
+    }
+
+    @Test
+    void noInstructionAfterTheLastOne() {
+        assertNull(NavigationService.findNextInstruction(INSTRUCTIONS, 9));
+        assertNull(NavigationService.findNextInstruction(INSTRUCTIONS, 20));
+    }
+
+    @Test
+    void segmentBeforeFirstInstructionReturnsFirst() {
+        List<RouteInstructionDTO> instructions = List.of(instruction(2, RoutePointType.TURN));
+
+        assertEquals(2, NavigationService.findNextInstruction(instructions, 0).getIndex());
+        assertEquals(2, NavigationService.findNextInstruction(instructions, 1).getIndex());
+        assertNull(NavigationService.findNextInstruction(instructions, 2));
+    }
+
+    private static RouteInstructionDTO instruction(int index, RoutePointType type) {
+        return new RouteInstructionDTO(index, type, type.name(), null);
+    }
+}